@@ -0,0 +1,131 @@
+package com.intellexi.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.intellexi.query.dto.ApplicationWithUserDto;
+import com.intellexi.query.json.ApplicationJsonWriter;
+import com.intellexi.query.model.Application;
+import com.intellexi.query.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/v1/applications response building: entity-to-DTO mapping as in ApplicationQueryController
+ * and Jackson serialization of the resulting list, for the list sizes an applicant and an admin see. The
+ * *ToStream benchmarks write into a discarding stream, as to a servlet response, and compare that path with the
+ * streaming ApplicationJsonWriter; run with {@code -prof gc} for bytes allocated per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApplicationDtoBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private List<Application> applications;
+    private Map<UUID, User> users;
+    private List<ApplicationWithUserDto> dtos;
+    // Spring's builder applies the same modules and defaults as Boot's auto-configured mapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ObjectWriter listWriter;
+    private ApplicationJsonWriter jsonWriter;
+    // Stand-ins for the strings the JDBC driver hands out per row; their cost is the driver's, not ours
+    private String[][] rows;
+
+    private static final OutputStream SINK = new OutputStream() {
+        @Override public void write(int b) {}
+        @Override public void write(byte[] b, int off, int len) {}
+    };
+
+    @Setup
+    public void setup() {
+        applications = new ArrayList<>(size);
+        users = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            User user = new User(UUID.randomUUID(), "First" + i, "Last" + i, "user" + i + "@example.com", null,
+                    i % 7 == 0 ? null : "Club " + (i % 500), User.Role.Applicant);
+            users.put(user.getId(), user);
+            applications.add(new Application(UUID.randomUUID(), UUID.randomUUID(), user.getId()));
+        }
+        dtos = toDtos();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, ApplicationWithUserDto.class));
+        // As configured in the query service, where Boot adds the BlackbirdModule bean to its mapper
+        jsonWriter = new ApplicationJsonWriter(Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build());
+        rows = new String[size][];
+        for (int i = 0; i < size; i++) {
+            ApplicationWithUserDto dto = dtos.get(i);
+            rows[i] = new String[] {dto.getId().toString(), dto.getRaceId().toString(), dto.getUserId().toString(),
+                    dto.getFirstName(), dto.getLastName(), dto.getEmail(), dto.getClub()};
+        }
+    }
+
+    @Benchmark
+    public List<ApplicationWithUserDto> construct() {
+        return toDtos();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    // Same output with the list type resolved once instead of per call
+    @Benchmark
+    public byte[] serializeWithTypedWriter() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] constructAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(toDtos());
+    }
+
+    // The list endpoint before the streaming path: DTOs for every row, then the converter's writer over the response
+    @Benchmark
+    public void constructAndSerializeToStream() throws IOException {
+        listWriter.writeValue(SINK, toDtos());
+    }
+
+    // The in-memory read model's path: DTOs already held, Blackbird accessors, pooled generator buffers
+    @Benchmark
+    public void serializeWithBlackbirdToStream() throws IOException {
+        jsonWriter.writeList(SINK, dtos);
+    }
+
+    // The JPA path now: each row straight from the result set columns to the generator
+    @Benchmark
+    public void streamRowsToStream() throws IOException {
+        try (JsonGenerator json = jsonWriter.createGenerator(SINK)) {
+            json.writeStartArray();
+            for (String[] row : rows) {
+                jsonWriter.writeRow(json, row[0], row[1], row[2], row[3], row[4], row[5], row[6]);
+            }
+            json.writeEndArray();
+        }
+    }
+
+    private List<ApplicationWithUserDto> toDtos() {
+        List<ApplicationWithUserDto> result = new ArrayList<>(applications.size());
+        for (Application app : applications) {
+            User user = users.get(app.getUserId());
+            result.add(new ApplicationWithUserDto(app.getId(), app.getRaceId(), app.getUserId(),
+                    user.getFirstName(), user.getLastName(), user.getEmail(), user.getClub()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,124 @@
+package com.intellexi.benchmarks;
+
+import com.intellexi.query.messaging.CacheInvalidationPublisher;
+import com.intellexi.query.messaging.EventListeners;
+import com.intellexi.query.model.Application;
+import com.intellexi.query.model.Race;
+import com.intellexi.query.model.User;
+import com.intellexi.query.repo.ApplicationRepository;
+import com.intellexi.query.repo.ClubStatsRepository;
+import com.intellexi.query.repo.DistanceStatsRepository;
+import com.intellexi.query.repo.RaceRepository;
+import com.intellexi.query.repo.RaceStatsRepository;
+import com.intellexi.query.repo.UserRepository;
+import com.intellexi.query.stats.StatsProjection;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query-side event handling without a broker or database: payload classification and mapping in
+ * {@link EventListeners} against stub repositories, including the counter updates and cache invalidation
+ * message it produces, and AMQP body decoding into the listener's Map payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventListenersBenchmark {
+    private final UUID raceId = UUID.randomUUID();
+    private final UUID applicationId = UUID.randomUUID();
+    private final User applicant = new User(UUID.randomUUID(), "Jane", "Smith", "runner@example.com", null, "Marathon Masters", User.Role.Applicant);
+
+    private EventListeners listeners;
+    private Jackson2JsonMessageConverter converter;
+    private Map<String, Object> raceCreated;
+    private Map<String, Object> raceUpdated;
+    private Map<String, Object> raceDeleted;
+    private Map<String, Object> applicationCreated;
+    private Map<String, Object> applicationDeleted;
+    private Message applicationCreatedMessage;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        RaceRepository raceRepository = Stubs.of(RaceRepository.class,
+                Map.of("findById", Optional.of(new Race(raceId, "Zagreb City Run", "10k"))));
+        ApplicationRepository applicationRepository = Stubs.of(ApplicationRepository.class,
+                Map.of("findById", Optional.of(new Application(applicationId, raceId, applicant.getId()))));
+        UserRepository userRepository = Stubs.of(UserRepository.class, Map.of("findByEmail", Optional.of(applicant)));
+        // Real projection and invalidation publisher; only the repositories and the broker are stubbed
+        StatsProjection statsProjection = new StatsProjection(Stubs.of(RaceStatsRepository.class),
+                Stubs.of(ClubStatsRepository.class), Stubs.of(DistanceStatsRepository.class));
+        RabbitTemplate rabbitTemplate = new RabbitTemplate() {
+            @Override
+            public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+                blackhole.consume(message);
+            }
+        };
+        rabbitTemplate.setMessageConverter(new Jackson2JsonMessageConverter());
+        CacheInvalidationPublisher invalidationPublisher = new CacheInvalidationPublisher(rabbitTemplate,
+                new FanoutExchange("query.cache.invalidation"));
+
+        listeners = new EventListeners(raceRepository, applicationRepository, userRepository, invalidationPublisher,
+                Optional.empty(), statsProjection, Stubs.of(PlatformTransactionManager.class));
+        converter = new Jackson2JsonMessageConverter();
+
+        raceCreated = Map.of("id", raceId.toString(), "name", "Zagreb City Run", "distance", "10k");
+        raceUpdated = Map.of("id", raceId.toString(), "distance", "HalfMarathon");
+        raceDeleted = Map.of("id", raceId.toString());
+        applicationCreated = Map.of("id", applicationId.toString(), "raceId", raceId.toString(), "applicantEmail", applicant.getEmail());
+        applicationDeleted = Map.of("id", applicationId.toString(), "initiatorRole", "Administrator");
+
+        // As published by the command service: JSON body, listener argument type inferred as Map
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setInferredArgumentType(Map.class);
+        String body = "{\"id\":\"" + applicationId + "\",\"raceId\":\"" + raceId + "\",\"applicantEmail\":\"" + applicant.getEmail() + "\"}";
+        applicationCreatedMessage = new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    @Benchmark
+    public void raceCreated() {
+        listeners.onRaceEvent(raceCreated);
+    }
+
+    @Benchmark
+    public void raceUpdated() {
+        listeners.onRaceEvent(raceUpdated);
+    }
+
+    @Benchmark
+    public void raceDeleted() {
+        listeners.onRaceEvent(raceDeleted);
+    }
+
+    @Benchmark
+    public void applicationCreated() {
+        listeners.onApplicationEvent(applicationCreated);
+    }
+
+    @Benchmark
+    public void applicationDeleted() {
+        listeners.onApplicationEvent(applicationDeleted);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void applicationCreatedFromMessage() {
+        listeners.onApplicationEvent((Map<String, Object>) converter.fromMessage(applicationCreatedMessage));
+    }
+}
@@ -0,0 +1,65 @@
+package com.intellexi.benchmarks;
+
+import com.intellexi.command.events.ApplicationEvents;
+import com.intellexi.command.events.EventPublisher;
+import com.intellexi.command.events.RaceEvents;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command-side publishing up to the broker boundary: EventPublisher through RabbitTemplate and
+ * Jackson2JsonMessageConverter, as configured in the command service's RabbitConfig. The converted
+ * message is handed to a Blackhole instead of a channel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventPublisherBenchmark {
+    private EventPublisher publisher;
+    private RaceEvents.RaceCreated raceCreated;
+    private ApplicationEvents.ApplicationCreated applicationCreated;
+    private ApplicationEvents.ApplicationDeleted applicationDeleted;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        RabbitTemplate template = new RabbitTemplate() {
+            @Override
+            public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+                blackhole.consume(message);
+            }
+        };
+        template.setMessageConverter(new Jackson2JsonMessageConverter());
+        publisher = new EventPublisher(template, new TopicExchange("events.exchange", true, false), "race.events", "application.events");
+
+        UUID raceId = UUID.randomUUID();
+        raceCreated = new RaceEvents.RaceCreated(raceId, "Zagreb City Run", "10k");
+        applicationCreated = new ApplicationEvents.ApplicationCreated(UUID.randomUUID(), raceId, "runner@example.com");
+        applicationDeleted = new ApplicationEvents.ApplicationDeleted(UUID.randomUUID(), "runner@example.com", "Applicant");
+    }
+
+    @Benchmark
+    public void raceCreated() {
+        publisher.publishRaceEvent(raceCreated);
+    }
+
+    @Benchmark
+    public void applicationCreated() {
+        publisher.publishApplicationEvent(applicationCreated);
+    }
+
+    @Benchmark
+    public void applicationDeleted() {
+        publisher.publishApplicationEvent(applicationDeleted);
+    }
+}
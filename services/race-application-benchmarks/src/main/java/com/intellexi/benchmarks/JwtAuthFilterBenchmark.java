@@ -0,0 +1,90 @@
+package com.intellexi.benchmarks;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT authentication in both services' JwtAuthFilter, driven through the public
+ * OncePerRequestFilter entry point with mock servlet objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+    // The filters' fallback when JWT_SECRET is not set
+    private static final String SECRET = "dev-shared-secret-please-change-this-is-a-very-long-secret-key-for-jwt-signing-that-is-at-least-256-bits-long";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private final com.intellexi.query.security.JwtAuthFilter queryFilter = new com.intellexi.query.security.JwtAuthFilter();
+    private final com.intellexi.command.security.JwtAuthFilter commandFilter = new com.intellexi.command.security.JwtAuthFilter();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private MockHttpServletRequest validToken;
+    private MockHttpServletRequest invalidToken;
+    private MockHttpServletRequest noToken;
+
+    @Setup
+    public void setup() {
+        String token = Jwts.builder()
+                .setSubject("runner@example.com")
+                .claim("role", "Applicant")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+        validToken = request("Bearer " + token);
+        invalidToken = request("Bearer " + token.substring(0, token.length() - 4) + "AAAA");
+        noToken = request(null);
+    }
+
+    @Benchmark
+    public void queryValidToken() throws ServletException, IOException {
+        queryFilter.doFilter(validToken, response, NO_OP_CHAIN);
+        // As at the end of Spring Security's filter chain
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void queryInvalidSignature() throws ServletException, IOException {
+        queryFilter.doFilter(invalidToken, response, NO_OP_CHAIN);
+        // As at the end of Spring Security's filter chain
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void queryNoToken() throws ServletException, IOException {
+        queryFilter.doFilter(noToken, response, NO_OP_CHAIN);
+        // As at the end of Spring Security's filter chain
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void commandValidToken() throws ServletException, IOException {
+        commandFilter.doFilter(validToken, response, NO_OP_CHAIN);
+        // As at the end of Spring Security's filter chain
+        SecurityContextHolder.clearContext();
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/applications");
+        if (authorization != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return request;
+    }
+}
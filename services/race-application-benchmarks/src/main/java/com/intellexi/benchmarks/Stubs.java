@@ -0,0 +1,40 @@
+package com.intellexi.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Interface stubs backed by a JDK proxy. Unlike mocking frameworks they record nothing and cost a
+ * reflective call, so benchmarks measure the code under test rather than the stubs.
+ */
+final class Stubs {
+    private Stubs() {}
+
+    /** Methods named in {@code answers} return the given value; everything else returns an empty/zero value. */
+    static <T> T of(Class<T> type, Map<String, Object> answers) {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            if (answers.containsKey(method.getName())) {
+                return answers.get(method.getName());
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == Optional.class) return Optional.empty();
+            if (returnType == boolean.class) return false;
+            if (returnType == int.class) return 0;
+            if (returnType == long.class) return 0L;
+            return null;
+        });
+        return type.cast(stub);
+    }
+
+    static <T> T of(Class<T> type) {
+        return of(type, Map.of());
+    }
+}
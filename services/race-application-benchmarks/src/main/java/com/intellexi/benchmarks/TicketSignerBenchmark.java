@@ -0,0 +1,46 @@
+package com.intellexi.benchmarks;
+
+import com.intellexi.command.waitingroom.TicketSigner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waiting room tickets, as checked on every status poll and admitted submission. verify: a valid ticket for its
+ * race. verifyForged: the same ticket presented by another applicant, which fails on the tag. issue: handing out
+ * a ticket, once per queued applicant. Run with -prof gc; the verify paths should allocate nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketSignerBenchmark {
+    private final TicketSigner signer = new TicketSigner("benchmark-waiting-room-secret");
+    private final UUID raceId = UUID.randomUUID();
+    private final String subject = "runner42@example.com";
+    private final long admitAt = System.currentTimeMillis() * 1000;
+    private String ticket;
+
+    @Setup
+    public void setup() {
+        ticket = signer.issue(subject, raceId, admitAt);
+    }
+
+    @Benchmark
+    public long verify() {
+        return signer.verify(ticket, subject, raceId);
+    }
+
+    @Benchmark
+    public long verifyForged() {
+        return signer.verify(ticket, "runner43@example.com", raceId);
+    }
+
+    @Benchmark
+    public String issue() {
+        return signer.issue(subject, raceId, admitAt);
+    }
+}
@@ -0,0 +1,11 @@
+package com.intellexi.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveCommandServiceApplication {
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveCommandServiceApplication.class, args);
+	}
+}
@@ -0,0 +1,83 @@
+package com.intellexi.reactive.api;
+
+import com.intellexi.reactive.events.ApplicationEvents;
+import com.intellexi.reactive.events.EventPublisher;
+import com.intellexi.reactive.events.PublishRejectedException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/applications")
+@Validated
+public class ApplicationCommandController {
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationCommandController.class);
+
+    public static class ApplicationRequest {
+        @NotNull private UUID raceId;
+        public ApplicationRequest() {}
+        public ApplicationRequest(UUID raceId) { this.raceId=raceId; }
+        public UUID getRaceId() { return raceId; }
+    }
+
+    private final EventPublisher publisher;
+
+    public ApplicationCommandController(EventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('Administrator','Applicant')")
+    public Mono<ResponseEntity<Map<String, Object>>> create(@Valid @RequestBody ApplicationRequest req, Authentication auth) {
+        String email = auth == null ? null : String.valueOf(auth.getPrincipal());
+        UUID id = UUID.randomUUID();
+        logger.debug("Publishing application created event - id: {}, user: {}, raceId: {}", id, email, req.getRaceId());
+        return publisher.publishApplicationEvent(new ApplicationEvents.ApplicationCreated(id, req.getRaceId(), email))
+                .then(Mono.fromSupplier(() -> ResponseEntity.accepted().<Map<String, Object>>body(
+                        Map.of("id", id, "message", "Application submitted successfully. Note: you can only register once per race."))))
+                .onErrorResume(PublishRejectedException.class, e -> Mono.just(unavailable(e)))
+                .onErrorResume(e -> {
+                    logger.error("Failed to create application for user: {} - raceId: {}", email, req.getRaceId(), e);
+                    return Mono.just(ResponseEntity.internalServerError().body(Map.of("error", "Failed to submit application. You might already be registered for this race.")));
+                });
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('Administrator','Applicant')")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable("id") String idString, Authentication auth) {
+        UUID id;
+        try {
+            id = UUID.fromString(idString);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid UUID format for application deletion: '{}'", idString);
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        String email = auth == null ? null : String.valueOf(auth.getPrincipal());
+        String role = auth == null ? null : auth.getAuthorities().stream().findFirst().map(a -> a.getAuthority().replace("ROLE_", "")).orElse(null);
+        logger.debug("Publishing application deleted event - id: {}, user: {}, role: {}", id, email, role);
+        return publisher.publishApplicationEvent(new ApplicationEvents.ApplicationDeleted(id, email, role))
+                .then(Mono.fromSupplier(() -> ResponseEntity.accepted().<Void>build()))
+                .onErrorResume(PublishRejectedException.class, e -> Mono.just(unavailable(e)))
+                .onErrorResume(e -> {
+                    logger.error("Failed to process application deletion - id: '{}', user: {}", id, email, e);
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
+    }
+
+    static <T> ResponseEntity<T> unavailable(PublishRejectedException e) {
+        logger.debug("Shedding command: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+}
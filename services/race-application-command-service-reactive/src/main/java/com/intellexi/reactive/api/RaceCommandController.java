@@ -0,0 +1,133 @@
+package com.intellexi.reactive.api;
+
+import com.intellexi.reactive.events.EventPublisher;
+import com.intellexi.reactive.events.PublishRejectedException;
+import com.intellexi.reactive.events.RaceEvents;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.intellexi.reactive.api.ApplicationCommandController.unavailable;
+
+@RestController
+@RequestMapping("/api/v1/races")
+@Validated
+public class RaceCommandController {
+    private static final Logger logger = LoggerFactory.getLogger(RaceCommandController.class);
+
+    public static final Set<String> VALID_DISTANCES = Set.of("5k", "10k", "HalfMarathon", "Marathon");
+
+    public static class CreateRaceRequest {
+        @NotBlank private String name;
+        @NotBlank private String distance;
+        public CreateRaceRequest() {}
+        public CreateRaceRequest(String name, String distance) { this.name = name; this.distance = distance; }
+        public String getName() { return name; }
+        public String getDistance() { return distance; }
+    }
+
+    public static class UpdateRaceRequest {
+        private String name;
+        private String distance;
+        public UpdateRaceRequest() {}
+        public UpdateRaceRequest(String name, String distance) { this.name = name; this.distance = distance; }
+        public String getName() { return name; }
+        public String getDistance() { return distance; }
+    }
+
+    private final EventPublisher publisher;
+
+    public RaceCommandController(EventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('Administrator')")
+    public Mono<ResponseEntity<Map<String, Object>>> create(@Valid @RequestBody CreateRaceRequest req) {
+        if (!VALID_DISTANCES.contains(req.getDistance())) {
+            logger.warn("Invalid distance rejected - '{}' not in allowed distances: {}", req.getDistance(), VALID_DISTANCES);
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid distance")));
+        }
+        UUID id = UUID.randomUUID();
+        logger.debug("Publishing race created event - id: {}, name: '{}', distance: '{}'", id, req.getName(), req.getDistance());
+        return publisher.publishRaceEvent(new RaceEvents.RaceCreated(id, req.getName(), req.getDistance()))
+                .then(Mono.fromSupplier(() -> ResponseEntity.created(URI.create("/api/v1/races/" + id)).<Map<String, Object>>body(
+                        Map.of("id", id, "message", "Race created successfully. Note: duplicate races with the same name and distance are not allowed."))))
+                .onErrorResume(PublishRejectedException.class, e -> Mono.just(unavailable(e)))
+                .onErrorResume(e -> {
+                    logger.error("Failed to create race - name: '{}', distance: '{}'", req.getName(), req.getDistance(), e);
+                    return Mono.just(ResponseEntity.internalServerError().body(Map.of("error", "Failed to create race. This might be due to a duplicate race with the same name and distance.")));
+                });
+    }
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('Administrator')")
+    public Mono<ResponseEntity<Void>> update(@PathVariable("id") String idString, @RequestBody UpdateRaceRequest req) {
+        UUID id;
+        try {
+            id = UUID.fromString(idString);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid UUID format for race update: '{}'", idString);
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (req.getDistance() != null && !VALID_DISTANCES.contains(req.getDistance())) {
+            logger.warn("Invalid distance rejected for race update - id: {}, distance: '{}' not in allowed distances: {}",
+                       id, req.getDistance(), VALID_DISTANCES);
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        logger.debug("Publishing race updated event - id: {}, name: '{}', distance: '{}'", id, req.getName(), req.getDistance());
+        return publisher.publishRaceEvent(new RaceEvents.RaceUpdated(id, req.getName(), req.getDistance()))
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()))
+                .onErrorResume(PublishRejectedException.class, e -> Mono.just(unavailable(e)))
+                .onErrorResume(e -> {
+                    logger.error("Failed to update race - id: '{}', name: '{}', distance: '{}'", id, req.getName(), req.getDistance(), e);
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('Administrator')")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable("id") String idString, Authentication auth) {
+        UUID id;
+        try {
+            id = UUID.fromString(idString);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid UUID format for race deletion: '{}'", idString);
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        String adminUser = auth != null ? String.valueOf(auth.getPrincipal()) : "unknown";
+        logger.debug("Publishing race deleted event - id: {}, admin: {}", id, adminUser);
+        return publisher.publishRaceEvent(new RaceEvents.RaceDeleted(id))
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(PublishRejectedException.class, e -> Mono.just(unavailable(e)))
+                .onErrorResume(e -> {
+                    logger.error("Failed to process race deletion - id: '{}', admin: {}", id, adminUser, e);
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
+    }
+
+    @GetMapping("/debug")
+    @PreAuthorize("hasRole('Administrator')")
+    public Mono<ResponseEntity<Map<String, Object>>> debug(Authentication auth) {
+        if (auth == null) {
+            return Mono.just(ResponseEntity.ok(Map.of("auth", "null")));
+        }
+        return Mono.just(ResponseEntity.ok(Map.of(
+            "principal", auth.getPrincipal(),
+            "authorities", auth.getAuthorities().toString(),
+            "authenticated", auth.isAuthenticated()
+        )));
+    }
+}
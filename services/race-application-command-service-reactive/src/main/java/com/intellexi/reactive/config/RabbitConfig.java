@@ -0,0 +1,27 @@
+package com.intellexi.reactive.config;
+
+import com.rabbitmq.client.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.rabbitmq.RabbitFlux;
+import reactor.rabbitmq.Sender;
+import reactor.rabbitmq.SenderOptions;
+
+@Configuration
+public class RabbitConfig {
+	@Bean(destroyMethod = "close")
+	Sender sender(@Value("${spring.rabbitmq.host}") String host,
+				  @Value("${spring.rabbitmq.port}") int port,
+				  @Value("${spring.rabbitmq.username}") String username,
+				  @Value("${spring.rabbitmq.password}") String password) {
+		ConnectionFactory connectionFactory = new ConnectionFactory();
+		connectionFactory.setHost(host);
+		connectionFactory.setPort(port);
+		connectionFactory.setUsername(username);
+		connectionFactory.setPassword(password);
+		// NIO: the connection's socket I/O shares a small selector pool instead of a thread per connection
+		connectionFactory.useNio();
+		return RabbitFlux.createSender(new SenderOptions().connectionFactory(connectionFactory));
+	}
+}
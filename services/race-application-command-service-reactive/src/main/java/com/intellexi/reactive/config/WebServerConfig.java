@@ -0,0 +1,21 @@
+package com.intellexi.reactive.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Boot prefers Tomcat's reactive adapter whenever Tomcat is on the classpath (e.g. next to the servlet
+ * edition in the load harness); declaring the factory keeps this edition on Netty's event loops everywhere.
+ */
+@Configuration
+public class WebServerConfig {
+	@Bean
+	NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+		NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+		factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+		return factory;
+	}
+}
@@ -0,0 +1,30 @@
+package com.intellexi.reactive.events;
+
+import java.util.UUID;
+
+public class ApplicationEvents {
+    // What EventPublisher partitions application events by
+    public interface ApplicationEvent {
+        UUID getId();
+    }
+    public static class ApplicationCreated implements ApplicationEvent {
+        private UUID id; private UUID raceId; private String applicantEmail;
+        public ApplicationCreated() {}
+        public ApplicationCreated(UUID id, UUID raceId, String applicantEmail) {
+            this.id=id; this.raceId=raceId; this.applicantEmail=applicantEmail;
+        }
+        public UUID getId() { return id; }
+        public UUID getRaceId() { return raceId; }
+        public String getApplicantEmail() { return applicantEmail; }
+    }
+    public static class ApplicationDeleted implements ApplicationEvent {
+        private UUID id; private String applicantEmail; private String initiatorRole;
+        public ApplicationDeleted() {}
+        public ApplicationDeleted(UUID id, String applicantEmail, String initiatorRole) { this.id=id; this.applicantEmail=applicantEmail; this.initiatorRole=initiatorRole; }
+        public UUID getId() { return id; }
+        public String getApplicantEmail() { return applicantEmail; }
+        public String getInitiatorRole() { return initiatorRole; }
+    }
+}
+
+
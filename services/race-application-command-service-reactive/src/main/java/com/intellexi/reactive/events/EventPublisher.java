@@ -0,0 +1,129 @@
+package com.intellexi.reactive.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.rabbitmq.CorrelableOutboundMessage;
+import reactor.rabbitmq.ExchangeSpecification;
+import reactor.rabbitmq.OutboundMessageResult;
+import reactor.rabbitmq.SendOptions;
+import reactor.rabbitmq.Sender;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes events through one long-lived send pipeline with publisher confirms. A request hands its message
+ * to the pipeline and completes when the broker confirms it, so no thread waits on the broker.
+ * At most {@code max-in-flight} messages are unconfirmed and up to {@code buffer-size} more wait for a slot;
+ * beyond that a publish fails at once with {@link PublishRejectedException} instead of queueing without bound.
+ * Messages match what the servlet edition's RabbitTemplate sends: persistent JSON with a {@code __TypeId__} header,
+ * application events on application.events.&lt;bucket&gt; by application id, with the same {@value #APPLICATION_BUCKETS}
+ * buckets, so the query service keeps the events of one application in one partition.
+ */
+@Service
+public class EventPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(EventPublisher.class);
+    // Fixed: the query service binds to these buckets, however many partitions it runs
+    static final int APPLICATION_BUCKETS = 16;
+
+    private final ObjectMapper objectMapper;
+    private final String exchange;
+    private final String raceRoutingKey;
+    private final String applicationRoutingKey;
+    private final Duration confirmTimeout;
+    private final Disposable pipeline;
+    // Replaced on every (re)subscription of the pipeline; null until the exchange is declared
+    private volatile FluxSink<CorrelableOutboundMessage<MonoSink<Void>>> sink;
+
+    public EventPublisher(
+            Sender sender,
+            ObjectMapper objectMapper,
+            @Value("${app.rabbit.exchange}") String exchange,
+            @Value("${app.rabbit.routing.race}") String raceRoutingKey,
+            @Value("${app.rabbit.routing.application}") String applicationRoutingKey,
+            @Value("${app.rabbit.publisher.max-in-flight}") int maxInFlight,
+            @Value("${app.rabbit.publisher.buffer-size}") int bufferSize,
+            @Value("${app.rabbit.publisher.confirm-timeout}") Duration confirmTimeout
+    ) {
+        this.objectMapper = objectMapper;
+        this.exchange = exchange;
+        this.raceRoutingKey = raceRoutingKey;
+        this.applicationRoutingKey = applicationRoutingKey;
+        this.confirmTimeout = confirmTimeout;
+
+        Flux<CorrelableOutboundMessage<MonoSink<Void>>> messages = Flux
+                .<CorrelableOutboundMessage<MonoSink<Void>>>create(created -> this.sink = created)
+                .onBackpressureBuffer(bufferSize,
+                        message -> message.getCorrelationMetadata().error(new PublishRejectedException("Publisher buffer is full")),
+                        BufferOverflowStrategy.DROP_LATEST);
+        this.pipeline = sender.declareExchange(ExchangeSpecification.exchange(exchange).type("topic").durable(true))
+                .thenMany(sender.sendWithTypedPublishConfirms(messages, new SendOptions().maxInFlight(maxInFlight)))
+                // Messages in flight when the channel fails run into confirm-timeout; new ones wait for the retry
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(10))
+                        .doBeforeRetry(signal -> {
+                            sink = null;
+                            logger.warn("Event publisher lost its channel, reconnecting: {}", signal.failure().getMessage());
+                        }))
+                .subscribe(EventPublisher::confirmed);
+    }
+
+    public Mono<Void> publishRaceEvent(Object payload) {
+        return publish(raceRoutingKey, payload);
+    }
+
+    public Mono<Void> publishApplicationEvent(ApplicationEvents.ApplicationEvent payload) {
+        return publish(applicationRoutingKey + "." + Math.floorMod(payload.getId().hashCode(), APPLICATION_BUCKETS), payload);
+    }
+
+    @PreDestroy
+    void close() {
+        pipeline.dispose();
+    }
+
+    private Mono<Void> publish(String routingKey, Object payload) {
+        return Mono.<Void>create(result -> {
+            FluxSink<CorrelableOutboundMessage<MonoSink<Void>>> current = sink;
+            if (current == null) {
+                result.error(new PublishRejectedException("Publisher is not connected to the broker"));
+                return;
+            }
+            try {
+                current.next(new CorrelableOutboundMessage<>(exchange, routingKey, properties(payload),
+                        objectMapper.writeValueAsBytes(payload), result));
+            } catch (JsonProcessingException e) {
+                result.error(e);
+            }
+        }).timeout(confirmTimeout);
+    }
+
+    private static AMQP.BasicProperties properties(Object payload) {
+        return new AMQP.BasicProperties.Builder()
+                .contentType("application/json")
+                .contentEncoding("UTF-8")
+                .deliveryMode(2)
+                .headers(Map.of("__TypeId__", payload.getClass().getName()))
+                .build();
+    }
+
+    private static void confirmed(OutboundMessageResult<CorrelableOutboundMessage<MonoSink<Void>>> result) {
+        MonoSink<Void> request = result.getOutboundMessage().getCorrelationMetadata();
+        if (result.isAck()) {
+            request.success();
+        } else {
+            request.error(new IllegalStateException("Broker did not confirm the event"));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.intellexi.reactive.events;
+
+/** The publisher's buffer is full or it is not connected yet; the request can be retried shortly. */
+public class PublishRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PublishRejectedException(String message) {
+        super(message);
+    }
+}
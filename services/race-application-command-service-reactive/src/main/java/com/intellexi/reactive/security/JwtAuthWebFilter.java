@@ -0,0 +1,68 @@
+package com.intellexi.reactive.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of the servlet edition's JwtAuthFilter with the same token rules: HMAC-signed with
+ * JWT_SECRET, subject is the principal, the "role" claim (default Applicant) becomes ROLE_&lt;role&gt;.
+ * Parsing is CPU-only, so it runs inline on the event loop; the parser is built once.
+ */
+public class JwtAuthWebFilter implements WebFilter {
+	private static final Logger logger = LoggerFactory.getLogger(JwtAuthWebFilter.class);
+
+	private final JwtParser parser;
+
+	public JwtAuthWebFilter() {
+		String secret = Optional.ofNullable(System.getenv("JWT_SECRET")).orElse("dev-shared-secret-please-change-this-is-a-very-long-secret-key-for-jwt-signing-that-is-at-least-256-bits-long");
+		this.parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))).build();
+	}
+
+	@Override
+	@NonNull
+	public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+		String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if (header == null || !header.startsWith("Bearer ")) {
+			return chain.filter(exchange);
+		}
+		String token = header.substring(7);
+		Claims claims;
+		try {
+			claims = parser.parseClaimsJws(token).getBody();
+		} catch (Exception e) {
+			logger.warn("JWT authentication failed for {} {} - Invalid token: {}",
+					exchange.getRequest().getMethod(), exchange.getRequest().getPath(), e.getMessage());
+			return chain.filter(exchange);
+		}
+
+		String role = claims.get("role", String.class);
+		String effectiveRole = role != null ? role : "Applicant";
+		Collection<? extends GrantedAuthority> auths = List.of(new SimpleGrantedAuthority("ROLE_" + effectiveRole));
+		AbstractAuthenticationToken auth = new AbstractAuthenticationToken(auths) {
+			@Override public Object getCredentials() { return token; }
+			@Override public Object getPrincipal() { return claims.getSubject(); }
+		};
+		auth.setAuthenticated(true);
+		logger.debug("Authenticated user: {} with role: {}", claims.getSubject(), effectiveRole);
+		return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
+	}
+}
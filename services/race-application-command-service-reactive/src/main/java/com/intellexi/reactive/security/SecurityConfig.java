@@ -0,0 +1,57 @@
+package com.intellexi.reactive.security;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.savedrequest.NoOpServerRequestCache;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+/** Same rules as the servlet edition: stateless JWT, health and token endpoints open, 403 without a valid token. */
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class SecurityConfig {
+	@Bean
+	SecurityWebFilterChain filterChain(ServerHttpSecurity http) {
+		http.csrf(csrf -> csrf.disable());
+		http.cors(cors -> {});
+
+		// Disable default authentication mechanisms
+		http.httpBasic(httpBasic -> httpBasic.disable());
+		http.formLogin(formLogin -> formLogin.disable());
+		// Stateless: no context or request cache in a WebSession, so no session is ever created per request
+		http.securityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+		http.requestCache(cache -> cache.requestCache(NoOpServerRequestCache.getInstance()));
+		http.exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)));
+
+		http.addFilterAt(new JwtAuthWebFilter(), SecurityWebFiltersOrder.AUTHENTICATION);
+
+		http.authorizeExchange(auth -> auth
+			.pathMatchers("/actuator/health", "/auth/token").permitAll()
+			.anyExchange().authenticated()
+		);
+
+		return http.build();
+	}
+
+	@Bean
+	CorsConfigurationSource corsConfigurationSource() {
+		CorsConfiguration cfg = new CorsConfiguration();
+		cfg.addAllowedOriginPattern("http://localhost:5173");
+		cfg.addAllowedHeader("*");
+		cfg.addAllowedMethod("*");
+		cfg.setAllowCredentials(true);
+		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+		source.registerCorsConfiguration("/**", cfg);
+		return source;
+	}
+}
@@ -0,0 +1,108 @@
+package com.intellexi.command.api;
+
+import com.intellexi.command.events.ApplicationEvents;
+import com.intellexi.command.events.EventPublisher;
+import com.intellexi.command.waitingroom.WaitingRoom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Registers several applications in one request, e.g. a whole team. Items without an applicantEmail register
+ * the caller. Only administrators may register someone else; an applicant's items for other people are rejected.
+ * Validation runs over every item first, then the accepted ones are published in one burst. An applicant's items
+ * pass the waiting room only while their race has capacity; a busy race has to be queued for through POST
+ * /api/v1/applications.
+ */
+@RestController
+public class ApplicationBatchController {
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationBatchController.class);
+
+    public static class BatchApplicationRequest {
+        private UUID raceId;
+        private String applicantEmail;
+        public BatchApplicationRequest() {}
+        public BatchApplicationRequest(UUID raceId, String applicantEmail) { this.raceId = raceId; this.applicantEmail = applicantEmail; }
+        public UUID getRaceId() { return raceId; }
+        public String getApplicantEmail() { return applicantEmail; }
+    }
+
+    private final EventPublisher publisher;
+    private final WaitingRoom waitingRoom;
+    private final int maxItems;
+
+    public ApplicationBatchController(EventPublisher publisher, WaitingRoom waitingRoom,
+                                      @Value("${app.batch.max-items}") int maxItems) {
+        this.publisher = publisher;
+        this.waitingRoom = waitingRoom;
+        this.maxItems = maxItems;
+    }
+
+    @PostMapping("/api/v1/applications:batch")
+    @PreAuthorize("hasAnyRole('Administrator','Applicant')")
+    public ResponseEntity<?> createBatch(@RequestBody List<BatchApplicationRequest> items, Authentication auth) {
+        if (items.size() > maxItems) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error",
+                    "A batch holds at most " + maxItems + " applications"));
+        }
+        String email = auth == null ? null : String.valueOf(auth.getPrincipal());
+        boolean administrator = auth != null && auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_Administrator"));
+        logger.info("Received application batch - user: {}, items: {}", email, items.size());
+
+        BatchResult result = new BatchResult(items.size());
+        List<ApplicationEvents.ApplicationCreated> events = new ArrayList<>(items.size());
+        Map<String, Integer> seen = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            BatchApplicationRequest item = items.get(i);
+            if (item == null || item.getRaceId() == null) {
+                result.rejected(i, "raceId is required");
+                continue;
+            }
+            String applicant = item.getApplicantEmail() == null || item.getApplicantEmail().isBlank()
+                    ? email : item.getApplicantEmail();
+            if (!administrator && !applicant.equals(email)) {
+                result.rejected(i, "Applicants can only register themselves");
+                continue;
+            }
+            // Same pair the query database keeps unique (uk_applications_user_race)
+            Integer first = seen.putIfAbsent(item.getRaceId() + "\u0000" + applicant, i);
+            if (first != null) {
+                result.rejected(i, "Duplicate of item " + first);
+                continue;
+            }
+            if (!administrator && !waitingRoom.admitNow(item.getRaceId())) {
+                result.rejected(i, "Race is busy, apply through POST /api/v1/applications to join the waiting room");
+                continue;
+            }
+            UUID id = UUID.randomUUID();
+            events.add(new ApplicationEvents.ApplicationCreated(id, item.getRaceId(), applicant));
+            result.accepted(i, id);
+        }
+
+        if (events.isEmpty()) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        try {
+            publisher.publishApplicationEvents(events);
+        } catch (Exception e) {
+            logger.error("Failed to publish application batch of {} events for user: {}", events.size(), email, e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to submit applications. Part of the batch may have been submitted."));
+        }
+        logger.info("Application batch published - user: {}, accepted: {}, rejected: {}", email, events.size(), result.getRejected());
+        return ResponseEntity.accepted().body(result);
+    }
+}
@@ -2,6 +2,8 @@ package com.intellexi.command.api;
 
 import com.intellexi.command.events.ApplicationEvents;
 import com.intellexi.command.events.EventPublisher;
+import com.intellexi.command.idempotency.IdempotencyStore;
+import com.intellexi.command.waitingroom.WaitingRoom;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -32,14 +34,26 @@ public class ApplicationCommandController {
     }
 
     private final EventPublisher publisher;
+    private final IdempotencyStore idempotency;
+    private final WaitingRoom waitingRoom;
 
-    public ApplicationCommandController(EventPublisher publisher) {
+    public ApplicationCommandController(EventPublisher publisher, IdempotencyStore idempotency, WaitingRoom waitingRoom) {
         this.publisher = publisher;
+        this.idempotency = idempotency;
+        this.waitingRoom = waitingRoom;
     }
 
     @PostMapping
     @PreAuthorize("hasAnyRole('Administrator','Applicant')")
-    public ResponseEntity<Map<String, Object>> create(@Valid @RequestBody ApplicationRequest req, Authentication auth) {
+    public ResponseEntity<Map<String, Object>> create(@Valid @RequestBody ApplicationRequest req, Authentication auth,
+                                                      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+                                                      @RequestHeader(value = WaitingRoom.HEADER, required = false) String ticket) {
+        // Waiting room first, so a queued 429 is not stored against the idempotency key
+        return waitingRoom.execute(ticket, auth, req.getRaceId(),
+                () -> idempotency.execute(idempotencyKey, auth, "POST /api/v1/applications", req.getRaceId(), () -> doCreate(req, auth)));
+    }
+
+    private ResponseEntity<Map<String, Object>> doCreate(ApplicationRequest req, Authentication auth) {
         String email = auth == null ? null : String.valueOf(auth.getPrincipal());
         logger.info("Received application creation request - user: {}, raceId: {}", email, req.getRaceId());
         
@@ -63,7 +77,12 @@ public class ApplicationCommandController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('Administrator','Applicant')")
-    public ResponseEntity<Void> delete(HttpServletRequest request, Authentication auth) {
+    public ResponseEntity<Void> delete(HttpServletRequest request, Authentication auth,
+                                       @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute(idempotencyKey, auth, "DELETE " + request.getRequestURI(), null, () -> doDelete(request, auth));
+    }
+
+    private ResponseEntity<Void> doDelete(HttpServletRequest request, Authentication auth) {
         // Extract ID from the URL path manually
         String path = request.getRequestURI();
         String idString = path.substring(path.lastIndexOf('/') + 1);
@@ -0,0 +1,44 @@
+package com.intellexi.command.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response of the batch endpoints: counts plus one entry per item, in request order. Accepted items carry the
+ * id their event was published with; rejected items carry the reason and were not published.
+ */
+@JsonPropertyOrder({"accepted", "rejected", "results"})
+public class BatchResult {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Item(int index, String status, UUID id, String error) {}
+
+    private final List<Item> results;
+
+    BatchResult(int size) {
+        this.results = new ArrayList<>(size);
+    }
+
+    void accepted(int index, UUID id) {
+        results.add(new Item(index, "accepted", id, null));
+    }
+
+    void rejected(int index, String error) {
+        results.add(new Item(index, "rejected", null, error));
+    }
+
+    public long getAccepted() {
+        return results.stream().filter(item -> item.id() != null).count();
+    }
+
+    public long getRejected() {
+        return results.size() - getAccepted();
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,183 @@
+package com.intellexi.command.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.intellexi.command.events.EventPublisher;
+import com.intellexi.command.events.RaceEvents;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.intellexi.command.api.RaceCommandController.CreateRaceRequest;
+import static com.intellexi.command.api.RaceCommandController.VALID_DISTANCES;
+
+/**
+ * Season seeding: many races in one request. Every item is validated before anything is published, then the
+ * accepted ones go out in one burst on a single channel. The CSV variant streams the upload and publishes in
+ * chunks, so only one chunk and the keys seen so far (for duplicate detection) are held in memory.
+ */
+@RestController
+public class RaceBatchController {
+    private static final Logger logger = LoggerFactory.getLogger(RaceBatchController.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ImportResult(String error, long accepted, long rejected, List<LineError> errors) {}
+
+    public record LineError(int line, String error) {}
+
+    private final EventPublisher publisher;
+    private final int maxItems;
+    private final int publishChunk;
+
+    public RaceBatchController(EventPublisher publisher,
+                               @Value("${app.batch.max-items}") int maxItems,
+                               @Value("${app.batch.publish-chunk}") int publishChunk) {
+        this.publisher = publisher;
+        this.maxItems = maxItems;
+        this.publishChunk = publishChunk;
+    }
+
+    @PostMapping("/api/v1/races:batch")
+    @PreAuthorize("hasRole('Administrator')")
+    public ResponseEntity<?> createBatch(@RequestBody List<CreateRaceRequest> items) {
+        if (items.size() > maxItems) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error",
+                    "A batch holds at most " + maxItems + " races; use /api/v1/races:import for larger lists"));
+        }
+        logger.info("Received race batch - {} items", items.size());
+
+        BatchResult result = new BatchResult(items.size());
+        List<RaceEvents.RaceCreated> events = new ArrayList<>(items.size());
+        Map<String, String> seen = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            CreateRaceRequest item = items.get(i);
+            String error = item == null ? "Item is empty" : validate(item.getName(), item.getDistance(), "item " + i, seen);
+            if (error != null) {
+                result.rejected(i, error);
+                continue;
+            }
+            UUID id = UUID.randomUUID();
+            events.add(new RaceEvents.RaceCreated(id, item.getName(), item.getDistance()));
+            result.accepted(i, id);
+        }
+
+        if (events.isEmpty()) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        try {
+            publisher.publishRaceEvents(events);
+        } catch (Exception e) {
+            logger.error("Failed to publish race batch of {} events", events.size(), e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to create races. Part of the batch may have been submitted."));
+        }
+        logger.info("Race batch published - accepted: {}, rejected: {}", events.size(), result.getRejected());
+        return ResponseEntity.accepted().body(result);
+    }
+
+    /**
+     * text/csv with name,distance per line; an optional header line "name,distance" is skipped. Names containing
+     * commas must be quoted. Returns counts and the first {@value #MAX_REPORTED_ERRORS} rejected lines.
+     */
+    @PostMapping(path = "/api/v1/races:import", consumes = "text/csv")
+    @PreAuthorize("hasRole('Administrator')")
+    public ResponseEntity<ImportResult> importCsv(HttpServletRequest request) throws IOException {
+        long accepted = 0;
+        long rejected = 0;
+        List<LineError> errors = new ArrayList<>();
+        List<RaceEvents.RaceCreated> chunk = new ArrayList<>(publishChunk);
+        Map<String, String> seen = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.replace(" ", "").equalsIgnoreCase("name,distance"))) {
+                    continue;
+                }
+                List<String> fields = fields(line);
+                String error = fields.size() != 2 ? "Expected name,distance"
+                        : validate(fields.get(0), fields.get(1), "line " + lineNumber, seen);
+                if (error != null) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new LineError(lineNumber, error));
+                    continue;
+                }
+                chunk.add(new RaceEvents.RaceCreated(UUID.randomUUID(), fields.get(0), fields.get(1)));
+                if (chunk.size() == publishChunk) {
+                    publisher.publishRaceEvents(chunk);
+                    accepted += chunk.size();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                publisher.publishRaceEvents(chunk);
+                accepted += chunk.size();
+            }
+        } catch (AmqpException e) {
+            // Earlier chunks are already published; report how far the import got
+            logger.error("Race import failed after {} published races", accepted, e);
+            return ResponseEntity.internalServerError().body(new ImportResult(
+                    "Import stopped: failed to publish races", accepted, rejected, errors));
+        }
+        logger.info("Race import published - accepted: {}, rejected: {}", accepted, rejected);
+        return ResponseEntity.accepted().body(new ImportResult(null, accepted, rejected, errors));
+    }
+
+    // Same rules as RaceCommandController.create, plus name + distance unique within the batch,
+    // compared exactly like the query database's uk_races_name_distance
+    private static String validate(String name, String distance, String position, Map<String, String> seen) {
+        if (name == null || name.isBlank()) return "Name is required";
+        if (distance == null || distance.isBlank()) return "Distance is required";
+        if (!VALID_DISTANCES.contains(distance)) return "Invalid distance";
+        String first = seen.putIfAbsent(name + "\u0000" + distance, position);
+        return first == null ? null : "Duplicate of " + first;
+    }
+
+    // One CSV record without embedded line breaks: comma-separated, double quotes around fields, "" for a quote
+    static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
@@ -2,6 +2,7 @@ package com.intellexi.command.api;
 
 import com.intellexi.command.events.EventPublisher;
 import com.intellexi.command.events.RaceEvents;
+import com.intellexi.command.idempotency.IdempotencyStore;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.slf4j.Logger;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -45,14 +47,22 @@ public class RaceCommandController {
     }
 
     private final EventPublisher publisher;
+    private final IdempotencyStore idempotency;
 
-    public RaceCommandController(EventPublisher publisher) {
+    public RaceCommandController(EventPublisher publisher, IdempotencyStore idempotency) {
         this.publisher = publisher;
+        this.idempotency = idempotency;
     }
 
     @PostMapping
     @PreAuthorize("hasRole('Administrator')")
-    public ResponseEntity<Map<String, Object>> create(@Valid @RequestBody CreateRaceRequest req) {
+    public ResponseEntity<Map<String, Object>> create(@Valid @RequestBody CreateRaceRequest req, Authentication auth,
+                                                      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute(idempotencyKey, auth, "POST /api/v1/races",
+                List.of(req.getName(), req.getDistance()), () -> doCreate(req));
+    }
+
+    private ResponseEntity<Map<String, Object>> doCreate(CreateRaceRequest req) {
         logger.info("Received race creation request - name: '{}', distance: '{}'", req.getName(), req.getDistance());
         
         try {
@@ -114,7 +124,12 @@ public class RaceCommandController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('Administrator')")
-    public ResponseEntity<Void> delete(HttpServletRequest request, Authentication auth) {
+    public ResponseEntity<Void> delete(HttpServletRequest request, Authentication auth,
+                                       @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute(idempotencyKey, auth, "DELETE " + request.getRequestURI(), null, () -> doDelete(request, auth));
+    }
+
+    private ResponseEntity<Void> doDelete(HttpServletRequest request, Authentication auth) {
         // Extract ID from the URL path manually
         String path = request.getRequestURI();
         String idString = path.substring(path.lastIndexOf('/') + 1);
@@ -28,6 +28,8 @@ public class RabbitConfig {
 		template.setMessageConverter(jackson2JsonMessageConverter());
 		MessagePostProcessor persistent = message -> { message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT); return message; };
 		template.setBeforePublishPostProcessors(persistent);
+		// Records a send span and writes the W3C traceparent header the query service's listener continues from
+		template.setObservationEnabled(true);
 		return template;
 	}
 } 
\ No newline at end of file
@@ -3,7 +3,11 @@ package com.intellexi.command.events;
 import java.util.UUID;
 
 public class ApplicationEvents {
-    public static class ApplicationCreated {
+    // What EventPublisher partitions application events by
+    public interface ApplicationEvent {
+        UUID getId();
+    }
+    public static class ApplicationCreated implements ApplicationEvent {
         private UUID id; private UUID raceId; private String applicantEmail;
         public ApplicationCreated() {}
         public ApplicationCreated(UUID id, UUID raceId, String applicantEmail) {
@@ -13,7 +17,7 @@ public class ApplicationEvents {
         public UUID getRaceId() { return raceId; }
         public String getApplicantEmail() { return applicantEmail; }
     }
-    public static class ApplicationDeleted {
+    public static class ApplicationDeleted implements ApplicationEvent {
         private UUID id; private String applicantEmail; private String initiatorRole;
         public ApplicationDeleted() {}
         public ApplicationDeleted(UUID id, String applicantEmail, String initiatorRole) { this.id=id; this.applicantEmail=applicantEmail; this.initiatorRole=initiatorRole; }
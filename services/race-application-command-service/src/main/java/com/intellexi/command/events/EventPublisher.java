@@ -5,8 +5,18 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Publishes race events on the race routing key and each application event on application.events.&lt;bucket&gt;, one
+ * of {@value #APPLICATION_BUCKETS} buckets chosen by application id. The query service binds each of its application
+ * partitions to a share of the buckets, so the events of one application stay in one queue, in order.
+ */
 @Service
 public class EventPublisher {
+    // Fixed: the query service binds to these buckets, however many partitions it runs
+    static final int APPLICATION_BUCKETS = 16;
     private final RabbitTemplate rabbitTemplate;
     private final TopicExchange exchange;
     private final String raceRoutingKey;
@@ -28,8 +38,31 @@ public class EventPublisher {
         rabbitTemplate.convertAndSend(exchange.getName(), raceRoutingKey, payload);
     }
 
-    public void publishApplicationEvent(Object payload) {
-        rabbitTemplate.convertAndSend(exchange.getName(), applicationRoutingKey, payload);
+    public void publishApplicationEvent(ApplicationEvents.ApplicationEvent payload) {
+        rabbitTemplate.convertAndSend(exchange.getName(), applicationRoutingKey(payload), payload);
+    }
+
+    public void publishRaceEvents(List<?> payloads) {
+        publishAll(payload -> raceRoutingKey, payloads);
+    }
+
+    public void publishApplicationEvents(List<? extends ApplicationEvents.ApplicationEvent> payloads) {
+        publishAll(this::applicationRoutingKey, payloads);
+    }
+
+    private String applicationRoutingKey(ApplicationEvents.ApplicationEvent payload) {
+        return applicationRoutingKey + "." + Math.floorMod(payload.getId().hashCode(), APPLICATION_BUCKETS);
+    }
+
+    // One channel held for the whole burst instead of a cache checkout per event; basicPublish doesn't wait
+    // for the broker, so the events go out back to back
+    private <T> void publishAll(Function<? super T, String> routingKey, List<? extends T> payloads) {
+        rabbitTemplate.invoke(operations -> {
+            for (T payload : payloads) {
+                operations.convertAndSend(exchange.getName(), routingKey.apply(payload), payload);
+            }
+            return null;
+        });
     }
 }
 
@@ -0,0 +1,113 @@
+package com.intellexi.command.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for the command endpoints. The first request with a key runs and its response is kept
+ * for {@code app.idempotency.ttl}; retries with the same key get that response back without publishing again.
+ * A retry that arrives while the first request is still running waits for it. Keys are scoped to the caller and
+ * the operation, and reusing a key for a different request body is refused with 422. 5xx responses are not kept,
+ * so a retry after a failure runs again.
+ */
+@Service
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record Entry(Object fingerprint, CompletableFuture<ResponseEntity<?>> response) {}
+
+    private final ConcurrentMap<String, Entry> entries;
+    private final Duration waitTimeout;
+
+    public IdempotencyStore(@Value("${app.idempotency.max-keys}") long maxKeys,
+                            @Value("${app.idempotency.ttl}") Duration ttl,
+                            @Value("${app.idempotency.wait-timeout}") Duration waitTimeout) {
+        Cache<String, Entry> cache = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterWrite(ttl).build();
+        this.entries = cache.asMap();
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Runs {@code action} once per key. {@code operation} names what is done (e.g. "DELETE /api/v1/races/{id}"
+     * with the id filled in); {@code fingerprint} is compared with equals() to detect a key reused for another body.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(@Nullable String key, @Nullable Authentication auth, String operation,
+                                         @Nullable Object fingerprint, Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return (ResponseEntity<T>) ResponseEntity.badRequest().body(
+                    Map.of("error", HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters"));
+        }
+        String scopedKey = (auth == null ? "" : String.valueOf(auth.getPrincipal())) + '\u0000' + operation + '\u0000' + key;
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.putIfAbsent(scopedKey, entry);
+        if (existing != null) {
+            return (ResponseEntity<T>) replay(existing, fingerprint, operation, key);
+        }
+
+        try {
+            ResponseEntity<T> response = action.get();
+            entry.response().complete(response);
+            if (response.getStatusCode().is5xxServerError()) {
+                entries.remove(scopedKey, entry);
+            }
+            return response;
+        } catch (RuntimeException | Error e) {
+            entries.remove(scopedKey, entry);
+            entry.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> replay(Entry existing, @Nullable Object fingerprint, String operation, String key) {
+        if (!Objects.equals(existing.fingerprint(), fingerprint)) {
+            logger.warn("Idempotency-Key reused with a different request - operation: {}, key: {}", operation, key);
+            return ResponseEntity.unprocessableEntity().body(
+                    Map.of("error", HEADER + " was already used for a different request"));
+        }
+        ResponseEntity<?> original;
+        try {
+            original = existing.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                    Map.of("error", "A request with this " + HEADER + " is still in progress"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the original request", e);
+        } catch (ExecutionException e) {
+            // The original request threw; this one fails the same way instead of running the action a second time
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+        logger.debug("Replaying response for Idempotency-Key - operation: {}, key: {}", operation, key);
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(headers -> {
+                    headers.addAll(original.getHeaders());
+                    headers.set(REPLAYED_HEADER, "true");
+                })
+                .body(original.getBody());
+    }
+}
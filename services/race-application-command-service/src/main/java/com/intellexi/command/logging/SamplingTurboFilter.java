@@ -0,0 +1,31 @@
+package com.intellexi.command.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps roughly one in {@code rate} events below WARN from loggers under {@code prefix} and drops the rest
+ * before the message is formatted. WARN and ERROR always pass, as does everything from other loggers.
+ * Configured from logback-spring.xml for the prod profile.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private String prefix = "com.intellexi";
+    private int rate = 100;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks; let those through so guarded blocks still see the real level
+        if (format == null || rate <= 1 || level.isGreaterOrEqual(Level.WARN) || !logger.getName().startsWith(prefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setPrefix(String prefix) { this.prefix = prefix; }
+    public void setRate(int rate) { this.rate = rate; }
+}
@@ -0,0 +1,87 @@
+package com.intellexi.command.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control after JwtAuthFilter: authenticated requests take a token from the caller's bucket in
+ * {@link RateLimiter} and get 429 with Retry-After when it is empty. Requests without a valid token pass
+ * through and are refused by Spring Security as before. Outcomes are counted as ratelimit.requests,
+ * tagged with role and outcome (passed or rejected).
+ *
+ * Not a Spring bean, so Boot does not also register it as a servlet filter ahead of the security chain.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private record Counters(Counter passed, Counter rejected) {}
+
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String subject = String.valueOf(auth.getPrincipal());
+        String role = auth.getAuthorities().stream().findFirst()
+                .map(GrantedAuthority::getAuthority).map(a -> a.replace("ROLE_", "")).orElse("Applicant");
+
+        long waitNanos = rateLimiter.acquire(subject, role);
+        Counters roleCounters = counters.computeIfAbsent(role, this::register);
+        if (waitNanos == 0) {
+            roleCounters.passed().increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        roleCounters.rejected().increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        logger.debug("Rate limit exceeded - user: {}, role: {}, {} {}, retry after {}s",
+                subject, role, request.getMethod(), request.getRequestURI(), retryAfter);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests, retry after " + retryAfter + "s\"}");
+    }
+
+    private Counters register(String role) {
+        return new Counters(counter(role, "passed"), counter(role, "rejected"));
+    }
+
+    private Counter counter(String role, String outcome) {
+        return Counter.builder("ratelimit.requests")
+                .description("Authenticated command requests admitted or refused by the per-principal rate limit")
+                .tags("role", role, "outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.intellexi.command.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-principal token buckets, one per JWT subject and role, with the limit chosen by role. Each bucket is a
+ * single AtomicLong holding the time at which it is next empty (GCRA), so a request is one read and one
+ * compareAndSet and never blocks another thread. Buckets live in Caffeine caches, one per role, each bounded by
+ * {@code app.rate-limit.max-keys}. An idle bucket is simply full again, so buckets need no expiry; the least
+ * frequently used are evicted once a table is full.
+ */
+@Component
+public class RateLimiter {
+    /** {@code perSecond} sustained, up to {@code burst} at once after being idle. */
+    public record Limit(double perSecond, int burst) {
+        long intervalNanos() {
+            return (long) (1_000_000_000L / perSecond);
+        }
+
+        long toleranceNanos() {
+            return intervalNanos() * (burst - 1);
+        }
+    }
+
+    private record RoleBuckets(Limit limit, Cache<String, AtomicLong> buckets) {}
+
+    private final Map<String, RoleBuckets> roles;
+    private final RoleBuckets defaultRole;
+
+    @Autowired
+    public RateLimiter(@Value("${app.rate-limit.max-keys}") long maxKeys,
+                       @Value("${app.rate-limit.applicant.per-second}") double applicantPerSecond,
+                       @Value("${app.rate-limit.applicant.burst}") int applicantBurst,
+                       @Value("${app.rate-limit.administrator.per-second}") double administratorPerSecond,
+                       @Value("${app.rate-limit.administrator.burst}") int administratorBurst) {
+        this(maxKeys, Map.of(
+                "Applicant", new Limit(applicantPerSecond, applicantBurst),
+                "Administrator", new Limit(administratorPerSecond, administratorBurst)));
+    }
+
+    public RateLimiter(long maxKeys, Map<String, Limit> limits) {
+        Map<String, RoleBuckets> roles = new HashMap<>();
+        // One table per role, keyed by subject alone, so a lookup does not build a key string. Size-bounded only:
+        // expireAfterAccess would read the clock and track order on every hit, costing more than the bucket itself
+        limits.forEach((role, limit) -> roles.put(role, new RoleBuckets(limit,
+                Caffeine.newBuilder().maximumSize(maxKeys).build())));
+        this.roles = Map.copyOf(roles);
+        // Roles without their own limit share the applicant table
+        this.defaultRole = roles.get("Applicant");
+    }
+
+    /** Takes one token for {@code subject}; returns 0 if the request may proceed, else nanoseconds until it may. */
+    public long acquire(String subject, String role) {
+        RoleBuckets roleBuckets = roles.getOrDefault(role, defaultRole);
+        Limit limit = roleBuckets.limit();
+        AtomicLong bucket = roleBuckets.buckets().get(subject, key -> new AtomicLong(Long.MIN_VALUE));
+        long interval = limit.intervalNanos();
+        long tolerance = limit.toleranceNanos();
+        while (true) {
+            long now = System.nanoTime();
+            long emptyAt = bucket.get();
+            long from = Math.max(emptyAt, now);
+            long allowedAt = from - tolerance;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (bucket.compareAndSet(emptyAt, from + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        return roles.values().stream().mapToLong(role -> role.buckets().estimatedSize()).sum();
+    }
+}
@@ -1,5 +1,9 @@
 package com.intellexi.command.security;
 
+import com.intellexi.command.ratelimit.RateLimitFilter;
+import com.intellexi.command.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
@@ -15,7 +19,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableMethodSecurity
 public class SecurityConfig {
 	@Bean
-	SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter) throws Exception {
+	SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter, RateLimiter rateLimiter, MeterRegistry meterRegistry,
+									@Value("${app.rate-limit.enabled}") boolean rateLimitEnabled) throws Exception {
 		http.csrf(csrf -> csrf.disable());
 		http.cors(cors -> {});
 		
@@ -26,10 +31,16 @@ public class SecurityConfig {
 		
 		// Add our JWT filter
 		http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+		if (rateLimitEnabled) {
+			// Keyed by the JWT subject, so it has to run after JwtAuthFilter has set the authentication
+			http.addFilterAfter(new RateLimitFilter(rateLimiter, meterRegistry), JwtAuthFilter.class);
+		}
 		
 		// Configure authorization
 		http.authorizeHttpRequests(auth -> auth
 			.requestMatchers("/actuator/health", "/auth/token").permitAll()
+			// Recent traces cover every user's requests
+			.requestMatchers("/actuator/traces/**").hasRole("Administrator")
 			.anyRequest().authenticated()
 		);
 		
@@ -0,0 +1,50 @@
+package com.intellexi.command.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-process span exporter: keeps the last {@code capacity} finished spans in a ring buffer so traces can be
+ * read from /actuator/traces without an external collector. Older spans are overwritten.
+ */
+public class RecentSpans implements SpanExporter {
+    private final SpanData[] buffer;
+    private long written;
+
+    public RecentSpans(int capacity) {
+        this.buffer = new SpanData[capacity];
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        for (SpanData span : spans) {
+            buffer[(int) (written++ % buffer.length)] = span;
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /** Buffered spans, oldest first. */
+    public synchronized List<SpanData> snapshot() {
+        int size = (int) Math.min(written, buffer.length);
+        List<SpanData> spans = new ArrayList<>(size);
+        for (long i = written - size; i < written; i++) {
+            spans.add(buffer[(int) (i % buffer.length)]);
+        }
+        return spans;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
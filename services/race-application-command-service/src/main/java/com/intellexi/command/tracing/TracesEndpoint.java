@@ -0,0 +1,84 @@
+package com.intellexi.command.tracing;
+
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/traces lists the most recent traces held by {@link RecentSpans}, newest first;
+ * /actuator/traces/{traceId} returns one trace. The same trace id can be looked up on the other service.
+ */
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+    private static final int DEFAULT_LIMIT = 20;
+    private final RecentSpans recentSpans;
+
+    public TracesEndpoint(RecentSpans recentSpans) {
+        this.recentSpans = recentSpans;
+    }
+
+    @ReadOperation
+    public List<Trace> traces(@Nullable Integer limit) {
+        Map<String, List<SpanData>> byTrace = new LinkedHashMap<>();
+        List<SpanData> spans = recentSpans.snapshot();
+        for (int i = spans.size() - 1; i >= 0; i--) {
+            SpanData span = spans.get(i);
+            byTrace.computeIfAbsent(span.getTraceId(), id -> new ArrayList<>()).add(span);
+        }
+        int max = limit == null ? DEFAULT_LIMIT : limit;
+        List<Trace> traces = new ArrayList<>(Math.min(max, byTrace.size()));
+        for (Map.Entry<String, List<SpanData>> entry : byTrace.entrySet()) {
+            if (traces.size() == max) break;
+            traces.add(Trace.of(entry.getKey(), entry.getValue()));
+        }
+        return traces;
+    }
+
+    @ReadOperation
+    @Nullable
+    public Trace trace(@Selector String traceId) {
+        List<SpanData> spans = recentSpans.snapshot().stream().filter(span -> span.getTraceId().equals(traceId)).toList();
+        return spans.isEmpty() ? null : Trace.of(traceId, spans);
+    }
+
+    public record Trace(String traceId, Instant start, double durationMs, List<Span> spans) {
+        static Trace of(String traceId, List<SpanData> spans) {
+            List<Span> sorted = spans.stream()
+                    .sorted((a, b) -> Long.compare(a.getStartEpochNanos(), b.getStartEpochNanos()))
+                    .map(Span::of)
+                    .toList();
+            long start = spans.stream().mapToLong(SpanData::getStartEpochNanos).min().orElse(0);
+            long end = spans.stream().mapToLong(SpanData::getEndEpochNanos).max().orElse(0);
+            return new Trace(traceId, instant(start), millis(end - start), sorted);
+        }
+    }
+
+    public record Span(String spanId, @Nullable String parentSpanId, String name, String kind, Instant start,
+                       double durationMs, String status, Map<String, Object> attributes) {
+        static Span of(SpanData span) {
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+            String parent = SpanId.isValid(span.getParentSpanId()) ? span.getParentSpanId() : null;
+            return new Span(span.getSpanId(), parent, span.getName(), span.getKind().name(),
+                    instant(span.getStartEpochNanos()), millis(span.getEndEpochNanos() - span.getStartEpochNanos()),
+                    span.getStatus().getStatusCode().name(), attributes);
+        }
+    }
+
+    private static Instant instant(long epochNanos) {
+        return Instant.ofEpochSecond(0, epochNanos);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
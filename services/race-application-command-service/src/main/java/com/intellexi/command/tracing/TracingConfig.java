@@ -0,0 +1,23 @@
+package com.intellexi.command.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring Boot registers every SpanExporter bean with the OpenTelemetry tracer, so finished spans land in
+ * {@link RecentSpans}. HTTP server spans come from Boot; the AMQP send span and the traceparent header
+ * come from the observation-enabled RabbitTemplate in RabbitConfig.
+ */
+@Configuration
+public class TracingConfig {
+    @Bean
+    RecentSpans recentSpans(@Value("${app.tracing.buffer-size}") int bufferSize) {
+        return new RecentSpans(bufferSize);
+    }
+
+    @Bean
+    TracesEndpoint tracesEndpoint(RecentSpans recentSpans) {
+        return new TracesEndpoint(recentSpans);
+    }
+}
@@ -0,0 +1,217 @@
+package com.intellexi.command.waitingroom;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Waiting room in front of POST /api/v1/applications. Each race admits {@code app.waiting-room.per-second}
+ * applications, after a burst of {@code burst}; while it has capacity, applicants pass straight through. Beyond
+ * that an applicant gets 429 with a signed ticket naming the moment their turn comes, polls GET
+ * /api/v1/waiting-room with it, and submits again with the ticket once admitted, within the admission window.
+ *
+ * The queue of a race is its admission schedule: one AtomicLong holding when the next ticket will be admitted
+ * (GCRA, as in the rate limiter), so tickets are admitted in the order they were issued and the service keeps no
+ * state per waiting applicant; each ticket carries its own admission time. A ticket whose holder gives up still
+ * uses its slot, so admissions never exceed the rate. Outcomes are counted as waitingroom.requests.
+ *
+ * Admission is per instance; tickets verify on any instance that shares app.waiting-room.secret.
+ */
+@Component
+public class WaitingRoom {
+    public static final String HEADER = "Queue-Ticket";
+    private static final Logger logger = LoggerFactory.getLogger(WaitingRoom.class);
+
+    private final boolean enabled;
+    private final TicketSigner signer;
+    private final long intervalMicros;
+    private final long toleranceMicros;
+    private final long windowMicros;
+    private final long maxWaitMicros;
+    // Theoretical arrival time of the next ticket, per race; an idle race is simply open again, so eviction is safe
+    private final Cache<UUID, AtomicLong> races;
+    private final Counter direct;
+    private final Counter queued;
+    private final Counter full;
+    private final Counter admitted;
+    private final Counter early;
+    private final Counter expired;
+    private final Counter invalid;
+    private final Counter busy;
+
+    public WaitingRoom(@Value("${app.waiting-room.enabled}") boolean enabled,
+                       @Value("${app.waiting-room.secret}") String secret,
+                       @Value("${app.waiting-room.per-second}") double perSecond,
+                       @Value("${app.waiting-room.burst}") int burst,
+                       @Value("${app.waiting-room.admission-window}") Duration admissionWindow,
+                       @Value("${app.waiting-room.max-wait}") Duration maxWait,
+                       @Value("${app.waiting-room.max-races}") long maxRaces,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.signer = new TicketSigner(secret);
+        this.intervalMicros = (long) (1_000_000 / perSecond);
+        this.toleranceMicros = intervalMicros * (burst - 1);
+        this.windowMicros = TimeUnit.NANOSECONDS.toMicros(admissionWindow.toNanos());
+        this.maxWaitMicros = TimeUnit.NANOSECONDS.toMicros(maxWait.toNanos());
+        this.races = Caffeine.newBuilder().maximumSize(maxRaces).build();
+        this.direct = counter(meterRegistry, "direct");
+        this.queued = counter(meterRegistry, "queued");
+        this.full = counter(meterRegistry, "full");
+        this.admitted = counter(meterRegistry, "admitted");
+        this.early = counter(meterRegistry, "early");
+        this.expired = counter(meterRegistry, "expired");
+        this.invalid = counter(meterRegistry, "invalid");
+        this.busy = counter(meterRegistry, "busy");
+        Gauge.builder("waitingroom.races", races, Cache::estimatedSize)
+                .description("Races with an admission schedule in the waiting room")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code action} if the caller may apply for {@code raceId} now: with an admitted ticket, or without one
+     * while the race has capacity. Otherwise answers 429 with a ticket, 403 for a bad ticket or 503 when the queue
+     * is longer than {@code app.waiting-room.max-wait}. An expired ticket joins the back of the queue again.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(@Nullable String ticket, Authentication auth, UUID raceId,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        String subject = String.valueOf(auth.getPrincipal());
+        long now = nowMicros();
+        if (ticket != null) {
+            long admitAt = signer.verify(ticket, subject, raceId);
+            if (admitAt < 0) {
+                invalid.increment();
+                logger.warn("Invalid queue ticket - user: {}, raceId: {}", subject, raceId);
+                return (ResponseEntity<T>) ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Invalid queue ticket"));
+            }
+            if (admitAt > now) {
+                early.increment();
+                return (ResponseEntity<T>) waiting(ticket, admitAt, now);
+            }
+            if (now - admitAt <= windowMicros) {
+                admitted.increment();
+                return action.get();
+            }
+            expired.increment();
+            logger.debug("Expired queue ticket, rejoining - user: {}, raceId: {}", subject, raceId);
+        }
+
+        long admitAt = schedule(raceId, now, maxWaitMicros);
+        if (admitAt < 0) {
+            full.increment();
+            logger.warn("Waiting room full - user: {}, raceId: {}", subject, raceId);
+            return (ResponseEntity<T>) ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds(maxWaitMicros)))
+                    .body(Map.of("error", "Registration queue is full, try again later"));
+        }
+        if (admitAt <= now) {
+            direct.increment();
+            return action.get();
+        }
+        queued.increment();
+        logger.debug("Queued in waiting room - user: {}, raceId: {}, wait: {}s", subject, raceId, seconds(admitAt - now));
+        return (ResponseEntity<T>) waiting(signer.issue(subject, raceId, admitAt), admitAt, now);
+    }
+
+    /** Where the caller's ticket stands: still waiting, admitted, expired (410) or not valid for them (403). */
+    public ResponseEntity<Map<String, Object>> status(String ticket, Authentication auth) {
+        if (!enabled) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Waiting room is not enabled"));
+        }
+        long admitAt = signer.verify(ticket, String.valueOf(auth.getPrincipal()), null);
+        if (admitAt < 0) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Invalid queue ticket"));
+        }
+        long now = nowMicros();
+        if (admitAt > now) {
+            long retryAfter = seconds(admitAt - now);
+            return ResponseEntity.ok().header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(Map.of("admitted", false, "position", (admitAt - now) / intervalMicros, "retryAfter", retryAfter));
+        }
+        if (now - admitAt <= windowMicros) {
+            return ResponseEntity.ok(Map.of("admitted", true, "expiresIn", seconds(admitAt + windowMicros - now)));
+        }
+        return ResponseEntity.status(HttpStatus.GONE).body(Map.of("error", "Queue ticket expired, submit again to rejoin the queue"));
+    }
+
+    /**
+     * Takes a slot for {@code raceId} only if the race has capacity right now, for callers that cannot hand out a
+     * ticket (an applicant's item in a batch); they are told to apply singly and queue instead.
+     */
+    public boolean admitNow(UUID raceId) {
+        if (!enabled) {
+            return true;
+        }
+        if (schedule(raceId, nowMicros(), 0) < 0) {
+            busy.increment();
+            return false;
+        }
+        direct.increment();
+        return true;
+    }
+
+    // The admission time of a new ticket for the race, or -1 if that is further out than maxWait
+    private long schedule(UUID raceId, long now, long maxWait) {
+        AtomicLong next = races.get(raceId, id -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long current = next.get();
+            long from = Math.max(current, now);
+            long admitAt = Math.max(from - toleranceMicros, now);
+            if (admitAt - now > maxWait) {
+                return -1;
+            }
+            if (next.compareAndSet(current, from + intervalMicros)) {
+                return admitAt;
+            }
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> waiting(String ticket, long admitAt, long now) {
+        long retryAfter = seconds(admitAt - now);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .header(HEADER, ticket)
+                .body(Map.of(
+                        "error", "Registration is busy, you are in the waiting room",
+                        "ticket", ticket,
+                        "position", (admitAt - now) / intervalMicros,
+                        "retryAfter", retryAfter));
+    }
+
+    private static long seconds(long micros) {
+        return Math.max(1, (micros + 999_999) / 1_000_000);
+    }
+
+    // Wall clock, as tickets are checked against it on whichever instance they reach
+    private static long nowMicros() {
+        return System.currentTimeMillis() * 1000;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("waitingroom.requests")
+                .description("Application submissions and ticket checks in the waiting room, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.intellexi.command.waitingroom;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Status poll for a queue ticket. Checking a ticket is a MAC and a clock read, with no lookup, so waiting
+ * applicants can poll as often as Retry-After lets them.
+ */
+@RestController
+public class WaitingRoomController {
+    private final WaitingRoom waitingRoom;
+
+    public WaitingRoomController(WaitingRoom waitingRoom) {
+        this.waitingRoom = waitingRoom;
+    }
+
+    @GetMapping("/api/v1/waiting-room")
+    @PreAuthorize("hasAnyRole('Administrator','Applicant')")
+    public ResponseEntity<Map<String, Object>> status(@RequestHeader(WaitingRoom.HEADER) String ticket, Authentication auth) {
+        return waitingRoom.status(ticket, auth);
+    }
+}
@@ -0,0 +1,31 @@
+package com.intellexi.loadtest;
+
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.SystemConfig;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory Qpid Broker-J speaking AMQP 0-9-1 on the given port, with the guest/guest user
+ * both services default to. Nothing is persisted between runs.
+ */
+final class EmbeddedBroker implements AutoCloseable {
+    private final SystemLauncher launcher = new SystemLauncher();
+
+    EmbeddedBroker(int port) throws Exception {
+        URL config = EmbeddedBroker.class.getClassLoader().getResource("qpid-config.json");
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SystemConfig.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION, config.toExternalForm());
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        attributes.put(SystemConfig.CONTEXT, Map.of("qpid.amqp_port", String.valueOf(port)));
+        launcher.startup(attributes);
+    }
+
+    @Override
+    public void close() {
+        launcher.shutdown();
+    }
+}
@@ -0,0 +1,257 @@
+package com.intellexi.loadtest;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-model load: requests are started on an arrival schedule fixed up front (Poisson or evenly spaced),
+ * never waiting for earlier responses. A sample of accepted creates is polled on the query service to
+ * measure how long the command takes to become visible there.
+ */
+final class LoadGenerator {
+    // Mirrors the services' fallback when JWT_SECRET is not set
+    private static final String DEV_SECRET = "dev-shared-secret-please-change-this-is-a-very-long-secret-key-for-jwt-signing-that-is-at-least-256-bits-long";
+    private static final String ADMIN_EMAIL = "admin@example.com";
+    private static final List<String> DISTANCES = List.of("5k", "10k", "HalfMarathon", "Marathon");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-fA-F-]{36})\"");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadOptions options;
+    private final URI command;
+    private final URI query;
+    private final LoadReport report;
+    // Plain HTTP/1.1 like the browser client; the JDK default attempts an h2c upgrade on every new connection
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5)).build();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "visibility-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Key key;
+    private final String adminToken;
+    private final String[] userTokens;
+    private final Operation[] weighted;
+    private final List<UUID> seededRaces;
+    // Races created during the run; updates and deletes only ever touch these
+    private final ConcurrentLinkedDeque<UUID> ownRaces = new ConcurrentLinkedDeque<>();
+    private final AtomicLong applications = new AtomicLong();
+    private final AtomicLong raceNames = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger polling = new AtomicInteger();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    LoadGenerator(LoadOptions options, URI command, URI query, List<UUID> seededRaces, LoadReport report) {
+        this.options = options;
+        this.command = command;
+        this.query = query;
+        this.seededRaces = seededRaces;
+        this.report = report;
+        String secret = System.getenv().getOrDefault("JWT_SECRET", DEV_SECRET);
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.adminToken = token(ADMIN_EMAIL, "Administrator");
+        this.userTokens = new String[options.users];
+        int total = options.mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.weighted = new Operation[total];
+        int i = 0;
+        for (Map.Entry<Operation, Integer> entry : options.mix.entrySet()) {
+            for (int w = 0; w < entry.getValue(); w++) weighted[i++] = entry.getKey();
+        }
+    }
+
+    static String userEmail(int user) {
+        return "loadtest-user" + user + "@example.com";
+    }
+
+    /** Creates races through the command service and waits until the query service has them all. */
+    static List<UUID> createRaces(LoadOptions options, URI command, URI query) throws Exception {
+        LoadGenerator setup = new LoadGenerator(options, command, query, List.of(), new LoadReport(1));
+        List<UUID> ids = new java.util.ArrayList<>();
+        for (int i = 0; i < options.races; i++) {
+            HttpResponse<String> response = setup.http.send(setup.raceCreate(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) throw new IllegalStateException("Race setup failed: " + response.statusCode() + " " + response.body());
+            ids.add(setup.id(response.body()));
+        }
+        for (UUID id : ids) {
+            HttpRequest get = setup.get(query.resolve("/api/v1/races/" + id), setup.adminToken);
+            long deadline = System.nanoTime() + options.visibilityTimeout.toNanos();
+            while (setup.http.send(get, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                if (System.nanoTime() > deadline) throw new IllegalStateException("Race " + id + " never reached the query service");
+                Thread.sleep(10);
+            }
+        }
+        return ids;
+    }
+
+    /** Runs warmup plus measurement on the arrival schedule, then waits for in-flight work to finish. */
+    void run(long measureFrom, long end) throws InterruptedException {
+        long next = System.nanoTime();
+        double meanIntervalNanos = 1e9 / options.rate;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            while (wait > 0) {
+                LockSupport.parkNanos(wait);
+                wait = next - System.nanoTime();
+            }
+            Operation operation = weighted[random.nextInt(weighted.length)];
+            boolean measured = next >= measureFrom;
+            if (inFlight.get() >= options.maxInFlight) {
+                if (measured) report.dropped(operation);
+            } else {
+                fire(operation, next, measured);
+            }
+            next += options.poisson
+                    ? (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos)
+                    : (long) meanIntervalNanos;
+        }
+        long deadline = System.nanoTime() + options.visibilityTimeout.toNanos() + REQUEST_TIMEOUT.toNanos();
+        while ((inFlight.get() > 0 || polling.get() > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        poller.shutdownNow();
+    }
+
+    private void fire(Operation requested, long intended, boolean measured) {
+        Operation operation = requested;
+        HttpRequest request;
+        UUID race = null;
+        switch (requested) {
+            case APPLY -> {
+                // Walk user x race pairs so each application is new; wraps (and turns into duplicates) only after users * races
+                long n = applications.getAndIncrement();
+                int user = (int) (n % options.users);
+                UUID raceId = seededRaces.get((int) ((n / options.users) % seededRaces.size()));
+                request = post(command.resolve("/api/v1/applications"), userToken(user), "{\"raceId\":\"" + raceId + "\"}");
+            }
+            case LIST_OWN -> request = get(query.resolve("/api/v1/applications"),
+                    userToken(ThreadLocalRandom.current().nextInt(options.users)));
+            case LIST_RACES -> request = get(query.resolve("/api/v1/races"), adminToken);
+            case RACE_UPDATE -> {
+                race = ownRaces.pollFirst();
+                if (race != null) ownRaces.offerLast(race);
+                request = race == null ? null : patch(command.resolve("/api/v1/races/" + race),
+                        "{\"name\":\"Load Race " + runId + "-" + raceNames.incrementAndGet() + "\"}");
+            }
+            case RACE_DELETE -> {
+                race = ownRaces.pollFirst();
+                request = race == null ? null : HttpRequest.newBuilder(command.resolve("/api/v1/races/" + race))
+                        .timeout(REQUEST_TIMEOUT).header("Authorization", "Bearer " + adminToken).DELETE().build();
+            }
+            default -> request = null;
+        }
+        if (request == null) {
+            // RACE_CREATE, or an update/delete before any race of our own exists
+            operation = Operation.RACE_CREATE;
+            request = raceCreate();
+        }
+
+        Operation recorded = operation;
+        inFlight.incrementAndGet();
+        CompletableFuture<HttpResponse<String>> response = http.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        response.whenComplete((r, error) -> {
+            long done = System.nanoTime();
+            inFlight.decrementAndGet();
+            boolean ok = error == null && r.statusCode() / 100 == 2;
+            if (measured) report.completed(recorded, done - intended, ok);
+            if (ok) accepted(recorded, r, done, measured);
+        });
+    }
+
+    private void accepted(Operation operation, HttpResponse<String> response, long acceptedAt, boolean measured) {
+        if (operation != Operation.APPLY && operation != Operation.RACE_CREATE) return;
+        UUID id = id(response.body());
+        if (operation == Operation.RACE_CREATE) ownRaces.offerLast(id);
+        if (!measured || ThreadLocalRandom.current().nextDouble() >= options.visibilitySample) return;
+
+        // Applications are only visible to their owner (or an admin); the admin token reads either kind
+        URI uri = query.resolve((operation == Operation.APPLY ? "/api/v1/applications/" : "/api/v1/races/") + id);
+        polling.incrementAndGet();
+        poll(operation, get(uri, adminToken), acceptedAt);
+    }
+
+    private void poll(Operation operation, HttpRequest request, long acceptedAt) {
+        http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((r, error) -> {
+            long now = System.nanoTime();
+            if (error == null && r.statusCode() == 200) {
+                report.visible(operation, now - acceptedAt);
+                polling.decrementAndGet();
+            } else if (now - acceptedAt > options.visibilityTimeout.toNanos() || poller.isShutdown()) {
+                report.neverVisible(operation);
+                polling.decrementAndGet();
+            } else {
+                poller.schedule(() -> poll(operation, request, acceptedAt), options.visibilityPoll.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private HttpRequest raceCreate() {
+        String distance = DISTANCES.get((int) (raceNames.get() % DISTANCES.size()));
+        return post(command.resolve("/api/v1/races"), adminToken,
+                "{\"name\":\"Load Race " + runId + "-" + raceNames.incrementAndGet() + "\",\"distance\":\"" + distance + "\"}");
+    }
+
+    private HttpRequest get(URI uri, String token) {
+        return HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).header("Authorization", "Bearer " + token).GET().build();
+    }
+
+    private HttpRequest post(URI uri, String token, String json) {
+        return HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpRequest patch(URI uri, String json) {
+        return HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + adminToken).header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private String userToken(int user) {
+        String token = userTokens[user];
+        if (token == null) {
+            token = userTokens[user] = token(userEmail(user), "Applicant");
+        }
+        return token;
+    }
+
+    private String token(String email, String role) {
+        return Jwts.builder()
+                .setSubject(email)
+                .claim("role", role)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(8)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private UUID id(String body) {
+        Matcher matcher = ID.matcher(body);
+        if (!matcher.find()) throw new IllegalStateException("No id in response: " + body);
+        return UUID.fromString(matcher.group(1));
+    }
+}
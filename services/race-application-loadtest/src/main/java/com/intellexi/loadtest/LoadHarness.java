@@ -0,0 +1,97 @@
+package com.intellexi.loadtest;
+
+import com.intellexi.command.CommandServiceApplication;
+import com.intellexi.query.QueryServiceApplication;
+import com.intellexi.reactive.ReactiveCommandServiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * End-to-end load test: embedded PostgreSQL and AMQP broker, both services in this JVM, an open-model
+ * request mix against their HTTP APIs. Options are listed in {@link LoadOptions}.
+ */
+public final class LoadHarness {
+    private LoadHarness() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             EmbeddedBroker broker = new EmbeddedBroker(options.brokerPort)) {
+            String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+
+            // The query service declares the exchange, queues and bindings and runs the Flyway migrations
+            Map<String, Object> queryProperties = new HashMap<>(Map.of(
+                    "spring.datasource.url", jdbcUrl,
+                    "spring.datasource.username", "postgres",
+                    "spring.datasource.password", "postgres",
+                    "spring.rabbitmq.port", options.brokerPort));
+            // The query service's JPA and Flyway are on the shared classpath; the command service has no database
+            Map<String, Object> commandProperties = new HashMap<>(Map.of(
+                    "spring.rabbitmq.port", options.brokerPort,
+                    "spring.autoconfigure.exclude",
+                    "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+                            + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration,"
+                            + "org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration"));
+            queryProperties.put("spring.threads.virtual.enabled", options.virtualThreads);
+            commandProperties.put("spring.threads.virtual.enabled", options.virtualThreads);
+            commandProperties.put("app.rate-limit.enabled", options.rateLimit);
+            commandProperties.put("app.waiting-room.enabled", options.waitingRoom);
+            queryProperties.put("app.bulkhead.enabled", options.bulkhead);
+            queryProperties.put("app.rabbit.autoscale.enabled", options.listenerAutoscale);
+            if (!options.profiles.isEmpty()) {
+                queryProperties.put("spring.profiles.active", options.profiles);
+                commandProperties.put("spring.profiles.active", options.profiles);
+            }
+            ConfigurableApplicationContext query = ServiceLauncher.start(QueryServiceApplication.class,
+                    "race-application-query-service", queryProperties, options.serviceLogging);
+            ConfigurableApplicationContext command = options.reactiveCommand
+                    ? ServiceLauncher.start(ReactiveCommandServiceApplication.class,
+                            "race-application-command-service-reactive", commandProperties, options.serviceLogging)
+                    : ServiceLauncher.start(CommandServiceApplication.class,
+                            "race-application-command-service", commandProperties, options.serviceLogging);
+            try {
+                URI commandUri = URI.create("http://localhost:" + ServiceLauncher.port(command));
+                URI queryUri = URI.create("http://localhost:" + ServiceLauncher.port(query));
+
+                seedUsers(postgres, options.users);
+                List<UUID> races = LoadGenerator.createRaces(options, commandUri, queryUri);
+                System.out.printf("Seeded %d applicants and %d races; running %s warmup + %s at %.0f req/s (%s arrivals)%n",
+                        options.users, races.size(), options.warmup, options.duration, options.rate,
+                        options.poisson ? "poisson" : "uniform");
+
+                LoadReport report = new LoadReport(options.duration.toNanos());
+                long start = System.nanoTime();
+                long measureFrom = start + options.warmup.toNanos();
+                new LoadGenerator(options, commandUri, queryUri, races, report)
+                        .run(measureFrom, measureFrom + options.duration.toNanos());
+
+                report.print();
+                report.write(options.results, options);
+            } finally {
+                command.close();
+                query.close();
+            }
+        }
+    }
+
+    // Users only ever arrive through the database, as in the real deployment
+    private static void seedUsers(EmbeddedPostgres postgres, int users) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO users (id, first_name, last_name, email, role, club) "
+                             + "SELECT gen_random_uuid(), 'Load', 'User ' || n, 'loadtest-user' || n || '@example.com', "
+                             + "'Applicant', 'Club ' || (n % 50) FROM generate_series(0, ? - 1) AS n")) {
+            insert.setInt(1, users);
+            insert.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.intellexi.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/** Harness settings, parsed from --key=value arguments. */
+final class LoadOptions {
+    double rate = 100;                       // arrivals per second, independent of response times
+    boolean poisson = true;                  // exponential inter-arrival times; false = evenly spaced
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(60);
+    Map<Operation, Integer> mix = parseMix("apply:30,listOwn:40,listRaces:20,raceCreate:4,raceUpdate:3,raceDelete:3");
+    int users = 5000;                        // applicants seeded straight into the query database
+    int races = 20;                          // races created through the command service before the run
+    double visibilitySample = 0.1;           // share of creates polled on the query service until visible
+    Duration visibilityPoll = Duration.ofMillis(5);
+    Duration visibilityTimeout = Duration.ofSeconds(30);
+    int maxInFlight = 2000;                  // arrivals beyond this are counted as dropped, not queued
+    int brokerPort = 5673;
+    Path results = Path.of("target/loadtest-results.json");
+    boolean serviceLogging = false;          // keep the services' own logging levels
+    String profiles = "";                    // spring.profiles.active for both services, e.g. prod
+    boolean virtualThreads = false;          // spring.threads.virtual.enabled for both services
+    boolean reactiveCommand = false;         // WebFlux edition of the command service instead of the servlet one
+    boolean rateLimit = false;               // command service's per-principal rate limit; off to measure capacity
+    boolean bulkhead = false;                // query service's per-partition bulkheads; off to measure capacity
+    boolean waitingRoom = false;             // command service's waiting room; queued applies count as errors
+    boolean listenerAutoscale = false;       // query service's event listener autoscaling
+
+    static LoadOptions parse(String[] args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got '" + arg + "'");
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "arrivals" -> options.poisson = switch (value) {
+                    case "poisson" -> true;
+                    case "uniform" -> false;
+                    default -> throw new IllegalArgumentException("--arrivals must be poisson or uniform");
+                };
+                case "warmup" -> options.warmup = duration(value);
+                case "duration" -> options.duration = duration(value);
+                case "mix" -> options.mix = parseMix(value);
+                case "users" -> options.users = Integer.parseInt(value);
+                case "races" -> options.races = Integer.parseInt(value);
+                case "visibility-sample" -> options.visibilitySample = Double.parseDouble(value);
+                case "visibility-poll" -> options.visibilityPoll = duration(value);
+                case "visibility-timeout" -> options.visibilityTimeout = duration(value);
+                case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "broker-port" -> options.brokerPort = Integer.parseInt(value);
+                case "results" -> options.results = Path.of(value);
+                case "service-logging" -> options.serviceLogging = Boolean.parseBoolean(value);
+                case "profiles" -> options.profiles = value;
+                case "virtual-threads" -> options.virtualThreads = Boolean.parseBoolean(value);
+                case "command" -> options.reactiveCommand = switch (value) {
+                    case "servlet" -> false;
+                    case "reactive" -> true;
+                    default -> throw new IllegalArgumentException("--command must be servlet or reactive");
+                };
+                case "rate-limit" -> options.rateLimit = Boolean.parseBoolean(value);
+                case "bulkhead" -> options.bulkhead = Boolean.parseBoolean(value);
+                case "waiting-room" -> options.waitingRoom = Boolean.parseBoolean(value);
+                case "listener-autoscale" -> options.listenerAutoscale = Boolean.parseBoolean(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + key);
+            }
+        }
+        if (options.rate <= 0 || options.users < 1 || options.races < 1) {
+            throw new IllegalArgumentException("--rate, --users and --races must be positive");
+        }
+        return options;
+    }
+
+    // 30s, 500ms, 2m or an ISO-8601 duration
+    private static Duration duration(String value) {
+        if (value.startsWith("P") || value.startsWith("p")) return Duration.parse(value);
+        if (value.endsWith("ms")) return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        if (value.endsWith("s")) return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        if (value.endsWith("m")) return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        throw new IllegalArgumentException("Unrecognised duration '" + value + "'");
+    }
+
+    // apply:30,listOwn:70 -> relative weights
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = Integer.parseInt(parts[1]);
+            if (weight < 0) throw new IllegalArgumentException("Negative weight in --mix: " + entry);
+            if (weight > 0) mix.put(Operation.byKey(parts[0]), weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("--mix has no operations");
+        return mix;
+    }
+}
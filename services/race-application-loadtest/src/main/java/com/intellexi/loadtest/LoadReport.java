@@ -0,0 +1,152 @@
+package com.intellexi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms (microseconds) per operation and for command-to-query visibility.
+ * Response times are measured from each request's intended arrival time, so a stalled service
+ * shows up as latency rather than as a lower request rate (no coordinated omission).
+ */
+final class LoadReport {
+    private static final class Counters {
+        final Histogram latency = new ConcurrentHistogram(3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+
+    private static final class Visibility {
+        final Histogram latency = new ConcurrentHistogram(3);
+        final LongAdder timeouts = new LongAdder();
+    }
+
+    private final Map<Operation, Counters> operations = new EnumMap<>(Operation.class);
+    private final Map<Operation, Visibility> visibility = new EnumMap<>(Operation.class);
+    private final long windowNanos;
+
+    LoadReport(long windowNanos) {
+        this.windowNanos = windowNanos;
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new Counters());
+            visibility.put(operation, new Visibility());
+        }
+    }
+
+    void completed(Operation operation, long nanos, boolean ok) {
+        Counters counters = operations.get(operation);
+        counters.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        (ok ? counters.ok : counters.errors).increment();
+    }
+
+    void dropped(Operation operation) {
+        operations.get(operation).dropped.increment();
+    }
+
+    void visible(Operation operation, long nanos) {
+        visibility.get(operation).latency.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    void neverVisible(Operation operation) {
+        visibility.get(operation).timeouts.increment();
+    }
+
+    void print() {
+        double seconds = windowNanos / 1e9;
+        System.out.printf("%n%-12s %9s %7s %7s %10s %9s %9s %9s %9s%n",
+                "operation", "ok", "errors", "dropped", "ok/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        long total = 0;
+        for (Map.Entry<Operation, Counters> entry : operations.entrySet()) {
+            Counters c = entry.getValue();
+            if (c.latency.getTotalCount() == 0 && c.dropped.sum() == 0) continue;
+            total += c.ok.sum();
+            System.out.printf("%-12s %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey().key,
+                    c.ok.sum(), c.errors.sum(), c.dropped.sum(), c.ok.sum() / seconds,
+                    ms(c.latency, 50), ms(c.latency, 99), ms(c.latency, 99.9), c.latency.getMaxValue() / 1000.0);
+        }
+        System.out.printf("%-12s %9d %7s %7s %10.1f%n", "total", total, "", "", total / seconds);
+
+        System.out.printf("%nvisible on query service after command accepted:%n%-12s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "samples", "timeouts", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<Operation, Visibility> entry : visibility.entrySet()) {
+            Visibility v = entry.getValue();
+            if (v.latency.getTotalCount() == 0 && v.timeouts.sum() == 0) continue;
+            System.out.printf("%-12s %9d %9d %9.2f %9.2f %9.2f %9.2f%n", entry.getKey().key,
+                    v.latency.getTotalCount(), v.timeouts.sum(),
+                    ms(v.latency, 50), ms(v.latency, 99), ms(v.latency, 99.9), v.latency.getMaxValue() / 1000.0);
+        }
+    }
+
+    void write(Path file, LoadOptions options) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rate", options.rate);
+        settings.put("arrivals", options.poisson ? "poisson" : "uniform");
+        settings.put("warmupSeconds", options.warmup.toSeconds());
+        settings.put("durationSeconds", options.duration.toSeconds());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix.forEach((operation, weight) -> mix.put(operation.key, weight));
+        settings.put("mix", mix);
+        settings.put("users", options.users);
+        settings.put("races", options.races);
+        settings.put("visibilitySample", options.visibilitySample);
+        settings.put("serviceLogging", options.serviceLogging);
+        settings.put("profiles", options.profiles);
+        settings.put("virtualThreads", options.virtualThreads);
+        settings.put("command", options.reactiveCommand ? "reactive" : "servlet");
+        settings.put("rateLimit", options.rateLimit);
+        json.put("settings", settings);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        operations.forEach((operation, c) -> {
+            if (c.latency.getTotalCount() == 0 && c.dropped.sum() == 0) return;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ok", c.ok.sum());
+            row.put("errors", c.errors.sum());
+            row.put("dropped", c.dropped.sum());
+            row.put("throughputPerSecond", c.ok.sum() / (windowNanos / 1e9));
+            row.putAll(percentiles(c.latency));
+            results.put(operation.key, row);
+        });
+        json.put("operations", results);
+
+        Map<String, Object> visible = new LinkedHashMap<>();
+        visibility.forEach((operation, v) -> {
+            if (v.latency.getTotalCount() == 0 && v.timeouts.sum() == 0) return;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("samples", v.latency.getTotalCount());
+            row.put("timeouts", v.timeouts.sum());
+            row.putAll(percentiles(v.latency));
+            visible.put(operation.key, row);
+        });
+        json.put("visibility", visible);
+
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+        System.out.println("\nResults written to " + file.toAbsolutePath());
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("p50Ms", ms(histogram, 50));
+        row.put("p99Ms", ms(histogram, 99));
+        row.put("p999Ms", ms(histogram, 99.9));
+        row.put("maxMs", histogram.getMaxValue() / 1000.0);
+        return row;
+    }
+
+    private static double ms(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
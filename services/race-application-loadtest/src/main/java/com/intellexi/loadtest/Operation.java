@@ -0,0 +1,22 @@
+package com.intellexi.loadtest;
+
+/** Request kinds the harness can mix; {@link #key} is the name used in --mix. */
+enum Operation {
+    APPLY("apply"),                 // POST /api/v1/applications as an applicant
+    LIST_OWN("listOwn"),            // GET /api/v1/applications as an applicant
+    LIST_RACES("listRaces"),        // GET /api/v1/races
+    RACE_CREATE("raceCreate"),      // POST /api/v1/races as admin
+    RACE_UPDATE("raceUpdate"),      // PATCH /api/v1/races/{id} on a race created during the run
+    RACE_DELETE("raceDelete");      // DELETE /api/v1/races/{id} on a race created during the run
+
+    final String key;
+
+    Operation(String key) { this.key = key; }
+
+    static Operation byKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) return operation;
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "'");
+    }
+}
@@ -0,0 +1,62 @@
+package com.intellexi.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Starts one service as its own Spring Boot application inside the harness JVM.
+ * Both service jars ship an application.yml at the classpath root, so each application is pointed
+ * at the copy inside its own jar; the harness then overrides only ports, credentials and logging.
+ */
+final class ServiceLauncher {
+    // Broker and database are stand-ins; keep their chatter and the services' DEBUG logging out of the results
+    private static final Map<String, Object> LOGGING = Map.of(
+            "logging.level.root", "WARN",
+            "logging.level.com.intellexi", "ERROR",
+            "logging.level.org.hibernate.SQL", "WARN",
+            "logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN",
+            "logging.level.org.springframework.security", "WARN",
+            "logging.level.org.springframework.amqp", "WARN",
+            "logging.level.qpid", "WARN");
+
+    private ServiceLauncher() {}
+
+    static ConfigurableApplicationContext start(Class<?> application, String artifactId, Map<String, Object> properties,
+                                                boolean serviceLogging) throws IOException {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.config.location", serviceConfig(artifactId));
+        defaults.put("server.port", 0);
+        defaults.putAll(properties);
+        if (!serviceLogging) {
+            defaults.putAll(LOGGING);
+        }
+        // Command-line style properties outrank the service's own application.yml
+        return new SpringApplication(application).run(defaults.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new));
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static String serviceConfig(String artifactId) throws IOException {
+        for (URL url : Collections.list(ServiceLauncher.class.getClassLoader().getResources("application.yml"))) {
+            // .../race-application-command-service/0.0.1-SNAPSHOT/race-application-command-service-0.0.1-SNAPSHOT.jar,
+            // but not race-application-command-service-reactive-0.0.1-SNAPSHOT.jar
+            if (url.toExternalForm().matches(".*/" + Pattern.quote(artifactId) + "(/|-\\d).*")) {
+                return url.toExternalForm();
+            }
+        }
+        throw new IllegalStateException("No application.yml found for " + artifactId
+                + "; run the harness from the dependency jars (make loadtest), not a fat jar");
+    }
+}
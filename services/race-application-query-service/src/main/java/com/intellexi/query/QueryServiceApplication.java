@@ -2,8 +2,10 @@ package com.intellexi.query;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class QueryServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(QueryServiceApplication.class, args);
@@ -1,80 +1,86 @@
 package com.intellexi.query.api;
 
-import com.intellexi.query.model.Application;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.intellexi.query.bulkhead.Bulkhead;
+import com.intellexi.query.json.ApplicationJsonWriter;
+import com.intellexi.query.json.ApplicationRows;
+import com.intellexi.query.memory.InMemoryReadModel;
 import com.intellexi.query.repo.ApplicationRepository;
 import com.intellexi.query.repo.UserRepository;
 import com.intellexi.query.dto.ApplicationWithUserDto;
+import com.intellexi.query.sql.StatementBudget;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/applications")
+@Transactional(readOnly = true)
 public class ApplicationQueryController {
     private static final Logger logger = LoggerFactory.getLogger(ApplicationQueryController.class);
     private final ApplicationRepository applicationRepository;
     private final UserRepository userRepository;
+    private final ApplicationRows applicationRows;
+    private final ApplicationJsonWriter applicationJsonWriter;
+    private final Optional<InMemoryReadModel> inMemoryReadModel;
 
-    public ApplicationQueryController(ApplicationRepository applicationRepository, UserRepository userRepository) {
+    public ApplicationQueryController(ApplicationRepository applicationRepository, UserRepository userRepository,
+                                      ApplicationRows applicationRows, ApplicationJsonWriter applicationJsonWriter,
+                                      Optional<InMemoryReadModel> inMemoryReadModel) {
         this.applicationRepository = applicationRepository;
         this.userRepository = userRepository;
+        this.applicationRows = applicationRows;
+        this.applicationJsonWriter = applicationJsonWriter;
+        this.inMemoryReadModel = inMemoryReadModel;
     }
 
     @GetMapping
+    @Bulkhead(bulkForAdministrators = true)
+    @StatementBudget(1)
     @PreAuthorize("hasAnyRole('Applicant','Administrator')")
-    public List<ApplicationWithUserDto> all(Authentication auth) {
+    public void all(Authentication auth, HttpServletResponse response) throws IOException {
         String user = String.valueOf(auth.getPrincipal());
         boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_Administrator"));
         
         logger.info("Received applications query request - user: {}, isAdmin: {}", user, isAdmin);
         
+        // Written straight to the response rather than returned, so a large list is never held as DTOs
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
         try {
-            List<Application> applications;
-            if (isAdmin) {
-                logger.debug("Admin user - fetching all applications");
-                applications = applicationRepository.findAll();
-            } else {
-                logger.debug("Regular user - fetching applications for email: {}", user);
-                // Look up user by email to get userId, then find applications
-                applications = userRepository.findByEmail(user)
-                    .map(foundUser -> applicationRepository.findByUserId(foundUser.getId()))
-                    .orElseGet(() -> {
-                        logger.warn("User not found for email: {}", user);
-                        return List.of();
-                    });
+            if (inMemoryReadModel.isPresent()) {
+                InMemoryReadModel readModel = inMemoryReadModel.get();
+                List<ApplicationWithUserDto> applicationDtos = isAdmin ? readModel.applications() : readModel.applicationsOf(user);
+                applicationJsonWriter.writeList(response.getOutputStream(), applicationDtos);
+                logger.info("Successfully retrieved {} applications for user: {} (in-memory)", applicationDtos.size(), user);
+                return;
+            }
+
+            int count;
+            try (JsonGenerator json = applicationJsonWriter.createGenerator(response.getOutputStream())) {
+                json.writeStartArray();
+                if (isAdmin) {
+                    logger.debug("Admin user - streaming all applications");
+                    count = applicationRows.forEach(applicationJsonWriter.rowWriter(json));
+                } else {
+                    // Unknown emails simply match no rows
+                    logger.debug("Regular user - streaming applications for email: {}", user);
+                    count = applicationRows.forEachOf(user, applicationJsonWriter.rowWriter(json));
+                }
+                json.writeEndArray();
             }
             
-            // Convert to DTOs with user data
-            List<ApplicationWithUserDto> applicationDtos = applications.stream()
-                .map(app -> {
-                    // Get user data for this application
-                    return userRepository.findById(app.getUserId())
-                        .map(appUser -> new ApplicationWithUserDto(
-                            app.getId(),
-                            app.getRaceId(),
-                            app.getUserId(),
-                            appUser.getFirstName(),
-                            appUser.getLastName(),
-                            appUser.getEmail(),
-                            appUser.getClub()
-                        ))
-                        .orElse(new ApplicationWithUserDto(
-                            app.getId(),
-                            app.getRaceId(),
-                            app.getUserId(),
-                            "Unknown", "User", "unknown@example.com", null
-                        ));
-                })
-                .toList();
-            
-            logger.info("Successfully retrieved {} applications for user: {}", applicationDtos.size(), user);
-            return applicationDtos;
+            logger.info("Successfully retrieved {} applications for user: {}", count, user);
             
         } catch (Exception e) {
             logger.error("Failed to retrieve applications for user: {}, isAdmin: {}", user, isAdmin, e);
@@ -83,6 +89,7 @@ public class ApplicationQueryController {
     }
 
     @GetMapping("/{id}")
+    @StatementBudget(3)
     @PreAuthorize("hasAnyRole('Applicant','Administrator')")
     public ResponseEntity<ApplicationWithUserDto> one(@PathVariable UUID id, Authentication auth) {
         String user = String.valueOf(auth.getPrincipal());
@@ -91,6 +98,21 @@ public class ApplicationQueryController {
         logger.info("Received single application query request - id: {}, user: {}, isAdmin: {}", id, user, isAdmin);
         
         try {
+            if (inMemoryReadModel.isPresent()) {
+                return inMemoryReadModel.get().application(id).<ResponseEntity<ApplicationWithUserDto>>map(dto -> {
+                    // Emails are unique, so matching the owner's email is the same check as matching user ids
+                    if (isAdmin || user.equals(dto.getEmail())) {
+                        logger.info("Successfully retrieved application - id: {}, user: {} (in-memory)", id, user);
+                        return ResponseEntity.ok(dto);
+                    }
+                    logger.warn("Access denied for application - id: {}, requestUser: {}, ownerId: {}", id, user, dto.getUserId());
+                    return ResponseEntity.<ApplicationWithUserDto>status(403).build();
+                }).orElseGet(() -> {
+                    logger.warn("Application not found - id: {}, user: {}", id, user);
+                    return ResponseEntity.<ApplicationWithUserDto>notFound().build();
+                });
+            }
+
             return applicationRepository.findById(id).<ResponseEntity<ApplicationWithUserDto>>map(a -> {
                 if (isAdmin) {
                     // Create DTO with user data
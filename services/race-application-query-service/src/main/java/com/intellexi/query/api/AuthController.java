@@ -1,7 +1,10 @@
 package com.intellexi.query.api;
 
+import com.intellexi.query.bulkhead.Bulkhead;
+import com.intellexi.query.memory.InMemoryReadModel;
 import com.intellexi.query.model.User;
 import com.intellexi.query.repo.UserRepository;
+import com.intellexi.query.sql.StatementBudget;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -28,9 +31,11 @@ import java.util.Optional;
 public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
     private final UserRepository userRepository;
+    private final Optional<InMemoryReadModel> inMemoryReadModel;
     
-    public AuthController(UserRepository userRepository) {
+    public AuthController(UserRepository userRepository, Optional<InMemoryReadModel> inMemoryReadModel) {
         this.userRepository = userRepository;
+        this.inMemoryReadModel = inMemoryReadModel;
     }
     
     public static class TokenRequest {
@@ -44,12 +49,15 @@ public class AuthController {
     }
 
 	@PostMapping("/token")
+	@Bulkhead(Bulkhead.Partition.AUTH)
+	@StatementBudget(1)
 	public ResponseEntity<Map<String, String>> token(@RequestBody TokenRequest req) {
 		logger.info("Received token request for user: {} with role: {}", req.getEmail(), req.getRole());
 		
 		try {
 			// Validate user exists in database
-			Optional<User> userOpt = userRepository.findByEmail(req.getEmail());
+			Optional<User> userOpt = inMemoryReadModel.flatMap(m -> m.userByEmail(req.getEmail()))
+					.or(() -> userRepository.findByEmail(req.getEmail()));
 			if (userOpt.isEmpty()) {
 				logger.warn("Authentication failed - user not found: {}", req.getEmail());
 				return ResponseEntity.status(401).body(Map.of("error", "Invalid credentials - user not found"));
@@ -0,0 +1,134 @@
+package com.intellexi.query.api;
+
+import com.intellexi.query.dto.ApplicationWithUserDto;
+import com.intellexi.query.dto.LookupResult;
+import com.intellexi.query.memory.InMemoryReadModel;
+import com.intellexi.query.model.Race;
+import com.intellexi.query.repo.ApplicationRepository;
+import com.intellexi.query.repo.RaceRepository;
+import com.intellexi.query.sql.StatementBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Multi-get for integrations that resolve many ids at once: one request, one token check and one IN query instead
+ * of a GET per id. Application ownership is checked per row on the joined owner email, with the same rules as
+ * {@link ApplicationQueryController#one}.
+ */
+@RestController
+@Transactional(readOnly = true)
+public class LookupController {
+    private static final Logger logger = LoggerFactory.getLogger(LookupController.class);
+    private final RaceRepository raceRepository;
+    private final ApplicationRepository applicationRepository;
+    private final Optional<InMemoryReadModel> inMemoryReadModel;
+    private final int maxIds;
+
+    public LookupController(RaceRepository raceRepository, ApplicationRepository applicationRepository,
+                            Optional<InMemoryReadModel> inMemoryReadModel, @Value("${app.lookup.max-ids}") int maxIds) {
+        this.raceRepository = raceRepository;
+        this.applicationRepository = applicationRepository;
+        this.inMemoryReadModel = inMemoryReadModel;
+        this.maxIds = maxIds;
+    }
+
+    @PostMapping("/api/v1/races:lookup")
+    @StatementBudget(1)
+    @PreAuthorize("hasAnyRole('Applicant','Administrator')")
+    public ResponseEntity<?> races(@RequestBody List<UUID> ids) {
+        ResponseEntity<?> invalid = validate(ids);
+        if (invalid != null) {
+            return invalid;
+        }
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        logger.info("Received race lookup request - {} ids", requested.size());
+
+        Map<UUID, Race> found = inMemoryReadModel.isPresent()
+                ? byId(requested.stream().flatMap(id -> inMemoryReadModel.get().race(id).stream()).toList(), Race::getId)
+                : byId(raceRepository.findAllById(requested), Race::getId);
+
+        List<Race> items = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : requested) {
+            Race race = found.get(id);
+            if (race == null) missing.add(id); else items.add(race);
+        }
+        logger.info("Successfully looked up races - found: {}, missing: {}", items.size(), missing.size());
+        return ResponseEntity.ok(new LookupResult<>(items, missing, null));
+    }
+
+    @PostMapping("/api/v1/applications:lookup")
+    @StatementBudget(1)
+    @PreAuthorize("hasAnyRole('Applicant','Administrator')")
+    public ResponseEntity<?> applications(@RequestBody List<UUID> ids, Authentication auth) {
+        ResponseEntity<?> invalid = validate(ids);
+        if (invalid != null) {
+            return invalid;
+        }
+        String user = String.valueOf(auth.getPrincipal());
+        boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_Administrator"));
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        logger.info("Received application lookup request - {} ids, user: {}, isAdmin: {}", requested.size(), user, isAdmin);
+
+        Map<UUID, ApplicationWithUserDto> found = inMemoryReadModel.isPresent()
+                ? byId(requested.stream().flatMap(id -> inMemoryReadModel.get().application(id).stream()).toList(), ApplicationWithUserDto::getId)
+                : byId(applicationRepository.findWithUserByIdIn(requested), ApplicationWithUserDto::getId);
+
+        List<ApplicationWithUserDto> items = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>();
+        List<UUID> forbidden = new ArrayList<>();
+        for (UUID id : requested) {
+            ApplicationWithUserDto dto = found.get(id);
+            if (dto == null) {
+                missing.add(id);
+            } else if (isAdmin || user.equals(dto.getEmail())) {
+                // Emails are unique, so matching the owner's email is the same check as matching user ids
+                items.add(dto);
+            } else {
+                forbidden.add(id);
+            }
+        }
+        if (!forbidden.isEmpty()) {
+            logger.warn("Access denied for {} applications in lookup - requestUser: {}", forbidden.size(), user);
+        }
+        logger.info("Successfully looked up applications for user: {} - found: {}, missing: {}, forbidden: {}",
+                user, items.size(), missing.size(), forbidden.size());
+        return ResponseEntity.ok(new LookupResult<>(items, missing, forbidden));
+    }
+
+    private ResponseEntity<?> validate(List<UUID> ids) {
+        if (ids == null || ids.isEmpty() || ids.contains(null)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Expected a non-empty JSON array of ids"));
+        }
+        if (ids.size() > maxIds) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error",
+                    "A lookup holds at most " + maxIds + " ids"));
+        }
+        return null;
+    }
+
+    private static <T> Map<UUID, T> byId(Iterable<T> rows, Function<T, UUID> id) {
+        Map<UUID, T> byId = new HashMap<>();
+        rows.forEach(row -> byId.put(id.apply(row), row));
+        return byId;
+    }
+}
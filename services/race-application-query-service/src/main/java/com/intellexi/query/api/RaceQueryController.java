@@ -1,33 +1,52 @@
 package com.intellexi.query.api;
 
+import com.intellexi.query.bulkhead.Bulkhead;
+import com.intellexi.query.dto.ApplicationWithUserDto;
+import com.intellexi.query.dto.RosterPage;
+import com.intellexi.query.memory.InMemoryReadModel;
 import com.intellexi.query.model.Race;
+import com.intellexi.query.repo.ApplicationRepository;
 import com.intellexi.query.repo.RaceRepository;
+import com.intellexi.query.sql.StatementBudget;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/races")
+@Transactional(readOnly = true)
 public class RaceQueryController {
     private static final Logger logger = LoggerFactory.getLogger(RaceQueryController.class);
+    private static final int MAX_ROSTER_PAGE = 500;
     private final RaceRepository raceRepository;
+    private final ApplicationRepository applicationRepository;
+    private final Optional<InMemoryReadModel> inMemoryReadModel;
 
-    public RaceQueryController(RaceRepository raceRepository) {
+    public RaceQueryController(RaceRepository raceRepository, ApplicationRepository applicationRepository,
+                               Optional<InMemoryReadModel> inMemoryReadModel) {
         this.raceRepository = raceRepository;
+        this.applicationRepository = applicationRepository;
+        this.inMemoryReadModel = inMemoryReadModel;
     }
 
     @GetMapping
+    @StatementBudget(1)
     @PreAuthorize("hasAnyRole('Applicant','Administrator')")
     public List<Race> all() {
         logger.info("Received races query request - fetching all races");
         
         try {
-            List<Race> races = raceRepository.findAllOrderedByName();
+            List<Race> races = inMemoryReadModel.map(InMemoryReadModel::races).orElseGet(raceRepository::findAllOrderedByName);
             logger.info("Successfully retrieved {} races ordered by name", races.size());
             return races;
         } catch (Exception e) {
@@ -37,12 +56,14 @@ public class RaceQueryController {
     }
 
     @GetMapping("/{id}")
+    @StatementBudget(1)
     @PreAuthorize("hasAnyRole('Applicant','Administrator')")
     public ResponseEntity<Race> one(@PathVariable UUID id) {
         logger.info("Received single race query request - id: {}", id);
         
         try {
-            return raceRepository.findById(id)
+            Optional<Race> found = inMemoryReadModel.isPresent() ? inMemoryReadModel.get().race(id) : raceRepository.findById(id);
+            return found
                     .map(race -> {
                         logger.info("Successfully retrieved race - id: {}, name: '{}'", id, race.getName());
                         return ResponseEntity.ok(race);
@@ -56,6 +77,73 @@ public class RaceQueryController {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
 
+    @GetMapping("/{id}/applications")
+    @Bulkhead(Bulkhead.Partition.BULK)
+    @StatementBudget(2)
+    @PreAuthorize("hasRole('Administrator')")
+    public ResponseEntity<RosterPage> applications(@PathVariable UUID id,
+                                                   @RequestParam(defaultValue = "lastName") String sort,
+                                                   @RequestParam(required = false) String club,
+                                                   @RequestParam(required = false) String after,
+                                                   @RequestParam(defaultValue = "50") int limit) {
+        logger.info("Received race roster query request - raceId: {}, sort: {}, club: '{}', limit: {}", id, sort, club, limit);
+
+        if (!List.of("lastName", "club", "createdAt").contains(sort) || limit < 1 || limit > MAX_ROSTER_PAGE) {
+            logger.warn("Invalid roster query - sort: {}, limit: {}", sort, limit);
+            return ResponseEntity.badRequest().build();
+        }
+        RosterCursor cursor = null;
+        if (after != null) {
+            try {
+                cursor = RosterCursor.decode(after);
+                if ("createdAt".equals(cursor.sort())) {
+                    Instant.parse(cursor.key());
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                logger.warn("Invalid roster cursor - raceId: {}, cursor: '{}'", id, after);
+                return ResponseEntity.badRequest().build();
+            }
+            if (!cursor.sort().equals(sort)) {
+                logger.warn("Roster cursor was issued for sort '{}' but '{}' was requested", cursor.sort(), sort);
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        try {
+            if (raceRepository.findById(id).isEmpty()) {
+                logger.warn("Race not found for roster - id: {}", id);
+                return ResponseEntity.notFound().build();
+            }
+
+            // One extra row tells us whether another page exists
+            Limit fetch = Limit.of(limit + 1);
+            String afterKey = cursor == null ? null : cursor.key();
+            UUID afterId = cursor == null ? null : cursor.id();
+            List<ApplicationWithUserDto> rows = switch (sort) {
+                case "club" -> applicationRepository.findRosterByClub(id, club, afterKey, afterId, fetch);
+                case "createdAt" -> applicationRepository.findRosterByCreatedAt(id, club,
+                        afterKey == null ? null : Instant.parse(afterKey), afterId, fetch);
+                default -> applicationRepository.findRosterByLastName(id, club, afterKey, afterId, fetch);
+            };
 
+            String nextCursor = null;
+            if (rows.size() > limit) {
+                rows = rows.subList(0, limit);
+                ApplicationWithUserDto last = rows.get(limit - 1);
+                String key = switch (sort) {
+                    case "club" -> last.getClub() == null ? "" : last.getClub();
+                    case "createdAt" -> last.getCreatedAt().toString();
+                    default -> last.getLastName();
+                };
+                nextCursor = new RosterCursor(sort, key, last.getId()).encode();
+            }
+
+            logger.info("Successfully retrieved {} roster entries for race - id: {}", rows.size(), id);
+            return ResponseEntity.ok(new RosterPage(rows, nextCursor));
+        } catch (Exception e) {
+            logger.error("Failed to retrieve race roster - raceId: {}", id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.intellexi.query.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+// Opaque keyset position: the sort it belongs to, the last row's sort key and its id as tie-breaker
+record RosterCursor(String sort, String key, UUID id) {
+    String encode() {
+        String raw = sort + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static RosterCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        // The key may contain '|' (club names), the sort name and the UUID never do
+        int first = raw.indexOf('|');
+        int last = raw.lastIndexOf('|');
+        if (first < 0 || first == last) {
+            throw new IllegalArgumentException("Malformed roster cursor");
+        }
+        return new RosterCursor(raw.substring(0, first), raw.substring(first + 1, last), UUID.fromString(raw.substring(last + 1)));
+    }
+}
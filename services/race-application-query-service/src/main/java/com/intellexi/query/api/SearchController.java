@@ -0,0 +1,80 @@
+package com.intellexi.query.api;
+
+import com.intellexi.query.dto.ApplicantSearchHit;
+import com.intellexi.query.dto.RaceSearchHit;
+import com.intellexi.query.dto.SearchResults;
+import com.intellexi.query.repo.RaceRepository;
+import com.intellexi.query.repo.UserRepository;
+import com.intellexi.query.sql.StatementBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@Transactional(readOnly = true)
+public class SearchController {
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+    // Shorter terms yield no trigrams, so the GIN indexes could not narrow the scan
+    private static final int MIN_QUERY_LENGTH = 3;
+    private static final int MAX_QUERY_LENGTH = 100;
+    private static final int MAX_RESULTS = 50;
+    private final RaceRepository raceRepository;
+    private final UserRepository userRepository;
+
+    public SearchController(RaceRepository raceRepository, UserRepository userRepository) {
+        this.raceRepository = raceRepository;
+        this.userRepository = userRepository;
+    }
+
+    @GetMapping
+    @StatementBudget(3)
+    @PreAuthorize("hasAnyRole('Applicant','Administrator')")
+    public ResponseEntity<SearchResults> search(@RequestParam String q,
+                                                @RequestParam(defaultValue = "10") int limit,
+                                                Authentication auth) {
+        String term = q.trim();
+        boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_Administrator"));
+        logger.info("Received search request - q: '{}', limit: {}, isAdmin: {}", term, limit, isAdmin);
+
+        if (term.length() < MIN_QUERY_LENGTH || term.length() > MAX_QUERY_LENGTH || limit < 1 || limit > MAX_RESULTS) {
+            logger.warn("Invalid search request - q length: {}, limit: {}", term.length(), limit);
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            String pattern = "%" + escapeLike(term) + "%";
+            List<RaceSearchHit> races = raceRepository.search(term, pattern, limit);
+            // Applicant data is only searchable by administrators
+            List<ApplicantSearchHit> applicants = isAdmin ? searchApplicants(term, pattern, limit) : null;
+            logger.info("Successfully searched '{}' - races: {}, applicants: {}", term, races.size(),
+                    applicants == null ? "n/a" : applicants.size());
+            return ResponseEntity.ok(new SearchResults(races, applicants));
+        } catch (Exception e) {
+            logger.error("Failed to search - q: '{}'", term, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    private List<ApplicantSearchHit> searchApplicants(String term, String pattern, int limit) {
+        List<ApplicantSearchHit> hits = userRepository.searchApplicantsContaining(term, pattern, limit);
+        if (hits.size() == limit) {
+            return hits;
+        }
+        List<ApplicantSearchHit> merged = new ArrayList<>(hits);
+        merged.addAll(userRepository.searchApplicantsSimilarTo(term, pattern, limit - hits.size()));
+        return merged;
+    }
+
+    // Treat the user's input literally inside ILIKE; backslash is PostgreSQL's default escape character
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
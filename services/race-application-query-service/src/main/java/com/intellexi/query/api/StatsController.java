@@ -0,0 +1,81 @@
+package com.intellexi.query.api;
+
+import com.intellexi.query.model.ClubStats;
+import com.intellexi.query.model.DistanceStats;
+import com.intellexi.query.model.RaceStats;
+import com.intellexi.query.repo.ClubStatsRepository;
+import com.intellexi.query.repo.DistanceStatsRepository;
+import com.intellexi.query.repo.RaceStatsRepository;
+import com.intellexi.query.sql.StatementBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Registration dashboard counters; every lookup is a primary-key read of a counter row, never a COUNT(*)
+@RestController
+@RequestMapping("/api/v1/stats")
+@Transactional(readOnly = true)
+@PreAuthorize("hasRole('Administrator')")
+public class StatsController {
+    private static final Logger logger = LoggerFactory.getLogger(StatsController.class);
+    private final RaceStatsRepository raceStatsRepository;
+    private final ClubStatsRepository clubStatsRepository;
+    private final DistanceStatsRepository distanceStatsRepository;
+
+    public StatsController(RaceStatsRepository raceStatsRepository, ClubStatsRepository clubStatsRepository,
+                           DistanceStatsRepository distanceStatsRepository) {
+        this.raceStatsRepository = raceStatsRepository;
+        this.clubStatsRepository = clubStatsRepository;
+        this.distanceStatsRepository = distanceStatsRepository;
+    }
+
+    @GetMapping("/races/{id}")
+    @StatementBudget(1)
+    public ResponseEntity<RaceStats> race(@PathVariable UUID id) {
+        logger.info("Received race stats request - raceId: {}", id);
+        return found(raceStatsRepository.findById(id), "race", id);
+    }
+
+    @GetMapping("/clubs/{club}")
+    @StatementBudget(1)
+    public ResponseEntity<ClubStats> club(@PathVariable String club) {
+        logger.info("Received club stats request - club: '{}'", club);
+        return found(clubStatsRepository.findById(club), "club", club);
+    }
+
+    // Bounded by the command service's VALID_DISTANCES, so listing them all stays cheap
+    @GetMapping("/distances")
+    @StatementBudget(1)
+    public List<DistanceStats> distances() {
+        logger.info("Received distance stats request");
+        List<DistanceStats> stats = distanceStatsRepository.findAllOrderedByDistance();
+        logger.info("Successfully retrieved stats for {} distances", stats.size());
+        return stats;
+    }
+
+    @GetMapping("/distances/{distance}")
+    @StatementBudget(1)
+    public ResponseEntity<DistanceStats> distance(@PathVariable String distance) {
+        logger.info("Received distance stats request - distance: '{}'", distance);
+        return found(distanceStatsRepository.findById(distance), "distance", distance);
+    }
+
+    private <T> ResponseEntity<T> found(Optional<T> stats, String kind, Object key) {
+        return stats
+                .map(s -> {
+                    logger.info("Successfully retrieved {} stats - key: '{}'", kind, key);
+                    return ResponseEntity.ok(s);
+                })
+                .orElseGet(() -> {
+                    logger.warn("No {} stats found - key: '{}'", kind, key);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+}
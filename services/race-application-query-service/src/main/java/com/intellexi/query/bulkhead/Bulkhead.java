@@ -0,0 +1,26 @@
+package com.intellexi.query.bulkhead;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bulkhead partition the annotated handler method runs in. Handlers without the annotation run in INTERACTIVE.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+    Partition value() default Partition.INTERACTIVE;
+
+    /** Run in BULK instead when the caller is an administrator, for listings that then span every applicant. */
+    boolean bulkForAdministrators() default false;
+
+    enum Partition {
+        AUTH, INTERACTIVE, BULK;
+
+        public String tag() {
+            return name().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.intellexi.query.bulkhead;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * Admits each HTTP request into the {@link Bulkhead} partition of its handler and charges the connections it opens
+ * to that partition. A request that finds its partition full and its queue at the limit, or waits out maxWait,
+ * gets 503 with Retry-After before any work is done. An async request keeps its slot until its async dispatch
+ * completes; the executor threads it runs on meanwhile are charged to its partition.
+ */
+@Configuration
+@ConditionalOnProperty("app.bulkhead.enabled")
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig implements WebMvcConfigurer {
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadConfig.class);
+    private static final String PARTITION_ATTRIBUTE = Bulkhead.Partition.class.getName();
+    private final ObjectProvider<Bulkheads> bulkheads;
+
+    public BulkheadConfig(ObjectProvider<Bulkheads> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Bean
+    Bulkheads bulkheads(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(new Bulkheads.CompartmentAccessor());
+        return new Bulkheads(properties, meterRegistry);
+    }
+
+    @Bean
+    static BeanPostProcessor bulkheadPartitionedDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return new PartitionedDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request,
+                                     HttpServletResponse response, Object handler) throws IOException {
+                // The request dispatch took the slot; afterCompletion on this dispatch gives it back
+                if (request.getDispatcherType() == DispatcherType.ASYNC) {
+                    if (request.getAttribute(PARTITION_ATTRIBUTE) instanceof Bulkhead.Partition partition) {
+                        bulkheads.getObject().resume(partition);
+                    }
+                    return true;
+                }
+                Bulkhead.Partition partition = partitionOf(handler);
+                if (bulkheads.getObject().enter(partition)) {
+                    request.setAttribute(PARTITION_ATTRIBUTE, partition);
+                    return true;
+                }
+                logger.warn("Bulkhead full, rejecting request - partition: {}, {} {}",
+                        partition.tag(), request.getMethod(), request.getRequestURI());
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"error\":\"Service busy, retry after 1s\"}");
+                return false;
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request,
+                                                       HttpServletResponse response, Object handler) {
+                // Called instead of afterCompletion when the handler went async; the slot stays taken
+                bulkheads.getObject().suspend();
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request,
+                                        HttpServletResponse response, Object handler, Exception ex) {
+                if (request.getAttribute(PARTITION_ATTRIBUTE) instanceof Bulkhead.Partition partition) {
+                    request.removeAttribute(PARTITION_ATTRIBUTE);
+                    bulkheads.getObject().exit(partition);
+                }
+            }
+        });
+    }
+
+    private static Bulkhead.Partition partitionOf(Object handler) {
+        // Handlers other than controller methods, i.e. /graphql, can list everything for an administrator
+        boolean bulkForAdministrators = true;
+        Bulkhead.Partition partition = Bulkhead.Partition.INTERACTIVE;
+        if (handler instanceof HandlerMethod method) {
+            Bulkhead bulkhead = method.getMethodAnnotation(Bulkhead.class);
+            bulkForAdministrators = bulkhead != null && bulkhead.bulkForAdministrators();
+            partition = bulkhead == null ? Bulkhead.Partition.INTERACTIVE : bulkhead.value();
+        }
+        if (bulkForAdministrators) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_Administrator"))) {
+                return Bulkhead.Partition.BULK;
+            }
+        }
+        return partition;
+    }
+}
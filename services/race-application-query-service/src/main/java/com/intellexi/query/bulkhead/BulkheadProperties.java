@@ -0,0 +1,31 @@
+package com.intellexi.query.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param enabled     admit requests and hand out connections per partition; off means one shared Tomcat and Hikari pool
+ * @param auth        /auth/token
+ * @param interactive single-item lookups, stats, search and applicants' own listings
+ * @param bulk        administrators' listings and race rosters
+ */
+@ConfigurationProperties("app.bulkhead")
+public record BulkheadProperties(boolean enabled, Limits auth, Limits interactive, Limits bulk) {
+    /**
+     * @param maxConcurrent  requests running at once
+     * @param maxQueued      requests waiting for a slot; the next one is rejected straight away
+     * @param maxWait        how long a queued request waits for a slot before it is rejected
+     * @param maxConnections JDBC connections the partition may hold at once, out of the shared pool
+     * @param connectionWait how long a statement waits for one of those before it fails
+     */
+    public record Limits(int maxConcurrent, int maxQueued, Duration maxWait, int maxConnections, Duration connectionWait) {}
+
+    public Limits limits(Bulkhead.Partition partition) {
+        return switch (partition) {
+            case AUTH -> auth;
+            case INTERACTIVE -> interactive;
+            case BULK -> bulk;
+        };
+    }
+}
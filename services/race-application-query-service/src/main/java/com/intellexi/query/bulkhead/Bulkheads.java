@@ -0,0 +1,174 @@
+package com.intellexi.query.bulkhead;
+
+import io.micrometer.context.ThreadLocalAccessor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One compartment per {@link Bulkhead.Partition}, each with its own request slots, wait queue and share of the
+ * connection pool. Requests hold a slot on the Tomcat thread that serves them, so a saturated partition ties up at
+ * most maxConcurrent + maxQueued threads and rejects the rest at once. The partition of the request on the current
+ * thread is what {@link PartitionedDataSource} charges connections to. The compartment is registered for context
+ * propagation, so work the request hands to other threads, such as async MVC handlers and GraphQL data fetchers
+ * and batch loaders, is charged to it as well.
+ *
+ * Metrics, all tagged with partition: bulkhead.requests (outcome=permitted|rejected), bulkhead.active,
+ * bulkhead.queued, bulkhead.connections.active and bulkhead.connections.rejected.
+ */
+public class Bulkheads {
+    private static final ThreadLocal<Compartment> CURRENT = new ThreadLocal<>();
+
+    static final class Compartment {
+        private final Bulkhead.Partition partition;
+        private final BulkheadProperties.Limits limits;
+        private final Semaphore slots;
+        private final Semaphore connections;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final Counter permitted;
+        private final Counter rejected;
+        private final Counter connectionsRejected;
+
+        private Compartment(Bulkhead.Partition partition, BulkheadProperties.Limits limits, MeterRegistry meterRegistry) {
+            this.partition = partition;
+            this.limits = limits;
+            // Fair, so queued requests are admitted in arrival order
+            this.slots = new Semaphore(limits.maxConcurrent(), true);
+            this.connections = new Semaphore(limits.maxConnections(), true);
+            this.permitted = requests(meterRegistry, "permitted");
+            this.rejected = requests(meterRegistry, "rejected");
+            this.connectionsRejected = Counter.builder("bulkhead.connections.rejected")
+                    .description("Connection requests that found the partition's share of the pool in use for too long")
+                    .tag("partition", partition.tag())
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.active", this, c -> c.limits.maxConcurrent() - c.slots.availablePermits())
+                    .description("Requests running in the partition")
+                    .tag("partition", partition.tag())
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.queued", queued, AtomicInteger::get)
+                    .description("Requests waiting for a slot in the partition")
+                    .tag("partition", partition.tag())
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.connections.active", this, c -> c.limits.maxConnections() - c.connections.availablePermits())
+                    .description("JDBC connections held by requests in the partition")
+                    .tag("partition", partition.tag())
+                    .register(meterRegistry);
+        }
+
+        private Counter requests(MeterRegistry meterRegistry, String outcome) {
+            return Counter.builder("bulkhead.requests")
+                    .description("Requests admitted to or rejected by their bulkhead partition")
+                    .tags("partition", partition.tag(), "outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        Bulkhead.Partition partition() {
+            return partition;
+        }
+
+        private boolean enter() {
+            if (!slots.tryAcquire()) {
+                if (queued.incrementAndGet() > limits.maxQueued()) {
+                    queued.decrementAndGet();
+                    rejected.increment();
+                    return false;
+                }
+                try {
+                    if (!slots.tryAcquire(limits.maxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                        rejected.increment();
+                        return false;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejected.increment();
+                    return false;
+                } finally {
+                    queued.decrementAndGet();
+                }
+            }
+            permitted.increment();
+            return true;
+        }
+
+        boolean acquireConnection() throws InterruptedException {
+            if (connections.tryAcquire() || connections.tryAcquire(limits.connectionWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            connectionsRejected.increment();
+            return false;
+        }
+
+        void releaseConnection() {
+            connections.release();
+        }
+    }
+
+    private final Map<Bulkhead.Partition, Compartment> compartments = new EnumMap<>(Bulkhead.Partition.class);
+
+    public Bulkheads(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        for (Bulkhead.Partition partition : Bulkhead.Partition.values()) {
+            compartments.put(partition, new Compartment(partition, properties.limits(partition), meterRegistry));
+        }
+    }
+
+    /** Takes a slot in the partition and binds it to this thread; false if the partition is full. Pair with {@link #exit}. */
+    public boolean enter(Bulkhead.Partition partition) {
+        Compartment compartment = compartments.get(partition);
+        if (!compartment.enter()) {
+            return false;
+        }
+        CURRENT.set(compartment);
+        return true;
+    }
+
+    public void exit(Bulkhead.Partition partition) {
+        CURRENT.remove();
+        compartments.get(partition).slots.release();
+    }
+
+    /** Unbinds the partition from this thread, which async handling is handing back, while the request keeps its slot. */
+    public void suspend() {
+        CURRENT.remove();
+    }
+
+    /** Binds the partition of a request that already holds a slot to this thread, for its async dispatch. */
+    public void resume(Bulkhead.Partition partition) {
+        CURRENT.set(compartments.get(partition));
+    }
+
+    /** The compartment of the request on this thread, or null for listeners, jobs and Flyway. */
+    static Compartment current() {
+        return CURRENT.get();
+    }
+
+    /** Carries the current compartment wherever context propagation captures and restores thread-locals. */
+    static final class CompartmentAccessor implements ThreadLocalAccessor<Compartment> {
+        static final String KEY = Bulkheads.class.getName();
+
+        @Override
+        public Object key() {
+            return KEY;
+        }
+
+        @Override
+        public Compartment getValue() {
+            return CURRENT.get();
+        }
+
+        @Override
+        public void setValue(Compartment compartment) {
+            CURRENT.set(compartment);
+        }
+
+        @Override
+        public void setValue() {
+            CURRENT.remove();
+        }
+    }
+}
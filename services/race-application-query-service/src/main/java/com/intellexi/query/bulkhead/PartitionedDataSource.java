@@ -0,0 +1,69 @@
+package com.intellexi.query.bulkhead;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Charges each connection opened during a request to the request's bulkhead partition, so no partition can
+ * hold more than its share of the pool. Work outside a request, such as the event listeners, is not charged and
+ * takes whatever the partitions leave free.
+ */
+public class PartitionedDataSource extends DelegatingDataSource {
+    public PartitionedDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Bulkheads.Compartment compartment = Bulkheads.current();
+        return compartment == null ? super.getConnection() : charge(compartment, () -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Bulkheads.Compartment compartment = Bulkheads.current();
+        return compartment == null ? super.getConnection(username, password) : charge(compartment, () -> super.getConnection(username, password));
+    }
+
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    private static Connection charge(Bulkheads.Compartment compartment, ConnectionSupplier target) throws SQLException {
+        try {
+            if (!compartment.acquireConnection()) {
+                throw new SQLTransientConnectionException("Bulkhead '" + compartment.partition().tag() + "' has no free connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a connection", e);
+        }
+        Connection connection;
+        try {
+            connection = target.get();
+        } catch (SQLException | RuntimeException e) {
+            compartment.releaseConnection();
+            throw e;
+        }
+        // Hands the share back on the first close; the connection itself goes back to the pool as usual
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        compartment.releaseConnection();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package com.intellexi.query.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+public class CacheConfig {
+    public static final String USERS_REGION = "users";
+    public static final String RACES_REGION = "races";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager(
+            @Value("${app.cache.max-size.users}") long usersMaxSize,
+            @Value("${app.cache.max-size.races}") long racesMaxSize,
+            @Value("${app.cache.max-size.queries}") long queriesMaxSize
+    ) {
+        // A manager of its own rather than the JVM-wide default, so two contexts in one JVM (tests) keep separate regions
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create(CacheConfig.class.getName() + ":" + UUID.randomUUID()), CacheConfig.class.getClassLoader());
+        cacheManager.createCache(USERS_REGION, bounded(usersMaxSize));
+        cacheManager.createCache(RACES_REGION, bounded(racesMaxSize));
+        cacheManager.createCache(QUERY_RESULTS_REGION, bounded(queriesMaxSize));
+        // One entry per table; must never be evicted before the query results that depend on it
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,19 @@
+package com.intellexi.query.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+/**
+ * Work handed to Boot's applicationTaskExecutor, which runs async MVC handlers and, on virtual threads, GraphQL
+ * fetchers, carries the thread-locals registered with context propagation: the request's bulkhead compartment and
+ * its SQL statement scope.
+ */
+@Configuration
+public class TaskExecutionConfig {
+    @Bean
+    TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+}
@@ -0,0 +1,106 @@
+package com.intellexi.query.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the replica's replay lag on a fixed delay and tells {@link ReplicaRoutingDataSource} whether reads may go there.
+ * The replica counts as unusable until the first successful check, and whenever it cannot be reached.
+ * Published as datasource.replica.lag (seconds, NaN when unknown) and datasource.replica.usable.
+ */
+public class ReplicaLagMonitor implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    // Zero once the replica has replayed everything it received; otherwise an idle primary would look like growing lag.
+    // NULL while nothing has been replayed since startup, which is treated as unknown.
+    private static final String LAG_QUERY = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END
+            """;
+    private final DataSource replica;
+    private final double maxLagSeconds;
+    private final Duration interval;
+    private final MeterRegistry meterRegistry;
+    private ScheduledExecutorService scheduler;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, Duration interval, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.interval = interval;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Publishes the gauges and starts checking; until the first check completes the replica counts as unusable. */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        Gauge.builder("datasource.replica.lag", this, m -> m.lagSeconds)
+                .description("Seconds the read replica is behind the primary, as of the last check")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, m -> m.usable ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica, 0 while they fall back to the primary")
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    void check() {
+        double lag;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            lag = resultSet.getDouble(1);
+            if (resultSet.wasNull()) {
+                lag = Double.NaN;
+            }
+        } catch (SQLException e) {
+            if (usable) {
+                logger.warn("Replica lag check failed, routing reads to the primary", e);
+            }
+            lag = Double.NaN;
+        }
+
+        boolean nowUsable = !Double.isNaN(lag) && lag <= maxLagSeconds;
+        lagSeconds = lag;
+        if (nowUsable != usable) {
+            if (nowUsable) {
+                logger.info("Replica caught up - lag: {} s, routing read-only transactions to the replica", lag);
+            } else {
+                logger.warn("Replica unusable - lag: {} s, max: {} s, routing read-only transactions to the primary", lag, maxLagSeconds);
+            }
+        }
+        usable = nowUsable;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.intellexi.query.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param enabled           route read-only transactions to the replica; off means a single primary pool as before
+ * @param maximumPoolSize   connections in the replica pool; the primary pool takes spring.datasource.hikari.*
+ * @param connectionTimeout how long a read waits for a replica connection; kept short so an unreachable replica fails fast
+ * @param maxLag            reads go to the primary while the replica is further behind than this
+ * @param lagCheckInterval  how often the replica's replay lag is sampled
+ */
+@ConfigurationProperties("app.datasource.replica")
+public record ReplicaProperties(boolean enabled, String url, String username, String password, int maximumPoolSize,
+                                Duration connectionTimeout, Duration maxLag, Duration lagCheckInterval) {
+}
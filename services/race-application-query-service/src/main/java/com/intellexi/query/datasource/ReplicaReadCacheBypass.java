@@ -0,0 +1,44 @@
+package com.intellexi.query.datasource;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps rows read from the replica out of the second-level and query caches. Their entries do not expire, so a row
+ * loaded while the replica is up to maxLag behind would otherwise be served until the next event for it evicts it.
+ * Switches the transaction's session to CacheMode.GET as the replica connection is handed out, before any row is
+ * read: cached entries are still used, new ones are not stored. The session's previous mode is restored when the
+ * transaction completes, since with open-in-view it outlives the transaction.
+ */
+class ReplicaReadCacheBypass implements Runnable {
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    ReplicaReadCacheBypass(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void run() {
+        // Plain JDBC reads inside the transaction have no session, and nothing they read is cached
+        if (!(TransactionSynchronizationManager.getResource(entityManagerFactory.getObject()) instanceof EntityManagerHolder holder)) {
+            return;
+        }
+        Session session = holder.getEntityManager().unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        if (!cacheMode.isPutEnabled()) {
+            return;
+        }
+        session.setCacheMode(CacheMode.GET);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                session.setCacheMode(cacheMode);
+            }
+        });
+    }
+}
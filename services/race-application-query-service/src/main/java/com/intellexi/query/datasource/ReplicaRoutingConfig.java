@@ -0,0 +1,56 @@
+package com.intellexi.query.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Replaces Boot's single pool with a primary and a replica pool behind {@link ReplicaRoutingDataSource}.
+ * The bean keeps the name dataSource so JPA, Flyway, JdbcTemplate and the statement counter pick it up unchanged.
+ * The pools themselves are not beans: a replica outage must not turn /actuator/health DOWN while reads fall back.
+ * Both report Hikari's hikaricp.* metrics, tagged pool=primary or pool=replica. The primary takes
+ * spring.datasource.hikari.* like Boot's own pool; the replica is sized by {@link ReplicaProperties}.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.enabled")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+    @Bean(initMethod = "start")
+    ReplicaRoutingDataSource dataSource(DataSourceProperties primaryProperties, ReplicaProperties replicaProperties,
+                                        Environment environment, ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                        MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(replicaProperties.url());
+        replica.setUsername(replicaProperties.username());
+        replica.setPassword(replicaProperties.password());
+        replica.setMaximumPoolSize(replicaProperties.maximumPoolSize());
+        replica.setConnectionTimeout(replicaProperties.connectionTimeout().toMillis());
+        replica.setReadOnly(true);
+        // Start even when the replica is down; reads stay on the primary until the lag check succeeds
+        replica.setInitializationFailTimeout(-1);
+        replica.setMetricsTrackerFactory(metrics);
+
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replica, replicaProperties.maxLag(),
+                replicaProperties.lagCheckInterval(), meterRegistry);
+        return new ReplicaRoutingDataSource(primary, replica, lagMonitor,
+                new ReplicaReadCacheBypass(entityManagerFactory), meterRegistry);
+    }
+}
@@ -0,0 +1,83 @@
+package com.intellexi.query.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and all other work, including Flyway and the event listeners,
+ * to the primary. The lazy proxy delays fetching the physical connection until the first statement; by then the
+ * transaction manager has marked the transaction read-only, which it has not yet done when Hibernate asks for a
+ * connection. Reads fall back to the primary while {@link ReplicaLagMonitor} reports the replica as behind or down.
+ * onReplicaRead runs on the calling thread each time a transaction is handed a replica connection, before its first
+ * statement; see {@link ReplicaReadCacheBypass}.
+ * Routing decisions are counted as datasource.routing, tagged with the target pool and the reason.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+    private enum Target { PRIMARY, REPLICA }
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica, ReplicaLagMonitor lagMonitor,
+                                    Runnable onReplicaRead, MeterRegistry meterRegistry) {
+        super(router(primary, replica, lagMonitor, onReplicaRead, meterRegistry));
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+    }
+
+    private static AbstractRoutingDataSource router(HikariDataSource primary, HikariDataSource replica,
+                                                    ReplicaLagMonitor lagMonitor, Runnable onReplicaRead,
+                                                    MeterRegistry meterRegistry) {
+        Counter readWrite = routed(meterRegistry, "primary", "read-write");
+        Counter readOnly = routed(meterRegistry, "replica", "read-only");
+        Counter fallback = routed(meterRegistry, "primary", "replica-unusable");
+        AbstractRoutingDataSource router = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                    readWrite.increment();
+                    return Target.PRIMARY;
+                }
+                if (!lagMonitor.isReplicaUsable()) {
+                    fallback.increment();
+                    return Target.PRIMARY;
+                }
+                readOnly.increment();
+                onReplicaRead.run();
+                return Target.REPLICA;
+            }
+        };
+        router.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        return router;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String pool, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Physical connections handed out, by pool and routing reason")
+                .tags("pool", pool, "reason", reason)
+                .register(meterRegistry);
+    }
+
+    /** Starts the lag checks; reads stay on the primary until the first one succeeds. */
+    public void start() {
+        lagMonitor.start();
+    }
+
+    @Override
+    public void close() {
+        lagMonitor.close();
+        replica.close();
+        primary.close();
+    }
+}
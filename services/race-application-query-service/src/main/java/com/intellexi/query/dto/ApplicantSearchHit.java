@@ -0,0 +1,13 @@
+package com.intellexi.query.dto;
+
+import java.util.UUID;
+
+// Projection of UserRepository.searchApplicants rows
+public interface ApplicantSearchHit {
+    UUID getId();
+    String getFirstName();
+    String getLastName();
+    String getEmail();
+    String getClub();
+    float getScore();
+}
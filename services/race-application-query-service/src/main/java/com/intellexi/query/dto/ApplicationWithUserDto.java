@@ -1,5 +1,8 @@
 package com.intellexi.query.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
 import java.util.UUID;
 
 public class ApplicationWithUserDto {
@@ -10,6 +13,8 @@ public class ApplicationWithUserDto {
     private String lastName;
     private String email;
     private String club;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant createdAt; // Only populated by race roster queries
 
     public ApplicationWithUserDto() {}
 
@@ -23,6 +28,11 @@ public class ApplicationWithUserDto {
         this.club = club;
     }
 
+    public ApplicationWithUserDto(UUID id, UUID raceId, UUID userId, String firstName, String lastName, String email, String club, Instant createdAt) {
+        this(id, raceId, userId, firstName, lastName, email, club);
+        this.createdAt = createdAt;
+    }
+
     // Getters and setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -44,4 +54,7 @@ public class ApplicationWithUserDto {
 
     public String getClub() { return club; }
     public void setClub(String club) { this.club = club; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 }
@@ -0,0 +1,32 @@
+package com.intellexi.query.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.UUID;
+
+// Answer to a :lookup request; found items keep the order of the requested ids
+public class LookupResult<T> {
+    private List<T> items;
+    private List<UUID> missing;
+    // Only for application lookups: ids that exist but belong to another applicant
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<UUID> forbidden;
+
+    public LookupResult() {}
+
+    public LookupResult(List<T> items, List<UUID> missing, List<UUID> forbidden) {
+        this.items = items;
+        this.missing = missing;
+        this.forbidden = forbidden;
+    }
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public List<UUID> getMissing() { return missing; }
+    public void setMissing(List<UUID> missing) { this.missing = missing; }
+
+    public List<UUID> getForbidden() { return forbidden; }
+    public void setForbidden(List<UUID> forbidden) { this.forbidden = forbidden; }
+}
@@ -0,0 +1,11 @@
+package com.intellexi.query.dto;
+
+import java.util.UUID;
+
+// Projection of RaceRepository.search rows
+public interface RaceSearchHit {
+    UUID getId();
+    String getName();
+    String getDistance();
+    float getScore();
+}
@@ -0,0 +1,22 @@
+package com.intellexi.query.dto;
+
+import java.util.List;
+
+public class RosterPage {
+    private List<ApplicationWithUserDto> items;
+    private String nextCursor;
+
+    public RosterPage() {}
+
+    public RosterPage(List<ApplicationWithUserDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ApplicationWithUserDto> getItems() { return items; }
+    public void setItems(List<ApplicationWithUserDto> items) { this.items = items; }
+
+    // Null on the last page; otherwise pass back as ?after= to continue
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
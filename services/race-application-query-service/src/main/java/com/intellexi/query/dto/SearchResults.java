@@ -0,0 +1,25 @@
+package com.intellexi.query.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public class SearchResults {
+    private List<RaceSearchHit> races;
+    // Only populated for administrators; omitted from the response otherwise
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ApplicantSearchHit> applicants;
+
+    public SearchResults() {}
+
+    public SearchResults(List<RaceSearchHit> races, List<ApplicantSearchHit> applicants) {
+        this.races = races;
+        this.applicants = applicants;
+    }
+
+    public List<RaceSearchHit> getRaces() { return races; }
+    public void setRaces(List<RaceSearchHit> races) { this.races = races; }
+
+    public List<ApplicantSearchHit> getApplicants() { return applicants; }
+    public void setApplicants(List<ApplicantSearchHit> applicants) { this.applicants = applicants; }
+}
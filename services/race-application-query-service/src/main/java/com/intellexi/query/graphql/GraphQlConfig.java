@@ -0,0 +1,87 @@
+package com.intellexi.query.graphql;
+
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.GraphQLTypeUtil;
+import org.dataloader.BatchLoaderEnvironment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Data loaders for the GraphQL relations and the limits on what one query may ask for. Spring for GraphQL creates
+ * the loaders per request, so every Application.race, Application.user and Race.applications in a response is
+ * resolved with one query per relation, whatever the number of rows. Each load passes the field's selection set
+ * as key context, and the batch selects the union of what was asked for. Loaders and, on virtual threads, the
+ * controller methods run with the request's propagated context, so their connections count against its bulkhead.
+ */
+@Configuration
+public class GraphQlConfig {
+    static final String RACES = "races";
+    static final String USERS = "users";
+    static final String RACE_APPLICATIONS = "raceApplications";
+    // Assumed rows per list field when scoring a query, so nesting lists costs more than adding fields
+    private static final int LIST_FAN_OUT = 10;
+
+    public GraphQlConfig(BatchLoaderRegistry registry, GraphQlProjections projections) {
+        registry.<UUID, Map<String, Object>>forName(RACES).registerMappedBatchLoader((ids, env) ->
+                Mono.fromCallable(() -> byId(projections.racesById(ids, fields(env)))));
+        registry.<UUID, Map<String, Object>>forName(USERS).registerMappedBatchLoader((ids, env) ->
+                Mono.fromCallable(() -> byId(projections.usersById(ids, fields(env)))));
+        registry.<UUID, List<Map<String, Object>>>forName(RACE_APPLICATIONS).registerMappedBatchLoader((raceIds, env) ->
+                Mono.fromCallable(() -> {
+                    Map<UUID, List<Map<String, Object>>> byRace = new HashMap<>();
+                    raceIds.forEach(raceId -> byRace.put(raceId, new ArrayList<>()));
+                    for (Map<String, Object> row : projections.applicationsByRace(raceIds, fields(env))) {
+                        byRace.get((UUID) row.get(GraphQlProjections.RACE_ID)).add(row);
+                    }
+                    return byRace;
+                }));
+    }
+
+    @Bean
+    MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(@Value("${app.graphql.max-depth}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(@Value("${app.graphql.max-complexity}") int maxComplexity) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, (env, childComplexity) ->
+                GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(env.getFieldDefinition().getType()))
+                        ? 1 + LIST_FAN_OUT * childComplexity
+                        : 1 + childComplexity);
+    }
+
+    static Set<String> fields(DataFetchingFieldSelectionSet selection) {
+        Set<String> fields = new HashSet<>();
+        selection.getImmediateFields().forEach(field -> fields.add(field.getName()));
+        return fields;
+    }
+
+    private static Set<String> fields(BatchLoaderEnvironment env) {
+        Set<String> fields = new HashSet<>();
+        for (Object context : env.getKeyContextsList()) {
+            if (context instanceof DataFetchingFieldSelectionSet selection) {
+                fields.addAll(fields(selection));
+            }
+        }
+        return fields;
+    }
+
+    private static Map<UUID, Map<String, Object>> byId(List<Map<String, Object>> rows) {
+        Map<UUID, Map<String, Object>> byId = new HashMap<>(rows.size() * 2);
+        rows.forEach(row -> byId.put((UUID) row.get("id"), row));
+        return byId;
+    }
+}
@@ -0,0 +1,117 @@
+package com.intellexi.query.graphql;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * SQL behind the GraphQL endpoint. Each query selects only the columns for the fields the client asked for, plus
+ * the keys the data loaders need, and returns rows as maps keyed by GraphQL field name. Column names come from the
+ * fixed tables below, never from the request.
+ */
+@Component
+@Transactional(readOnly = true)
+public class GraphQlProjections {
+    private static final Map<String, String> RACE_COLUMNS = Map.of(
+            "id", "r.id", "name", "r.name", "distance", "r.distance");
+    private static final Map<String, String> APPLICATION_COLUMNS = Map.of(
+            "id", "a.id", "createdAt", "a.created_at");
+    private static final Map<String, String> USER_COLUMNS = Map.of(
+            "id", "u.id", "firstName", "u.first_name", "lastName", "u.last_name", "email", "u.email", "club", "u.club");
+
+    // Loader keys, selected whatever the client asked for
+    static final String RACE_ID = "raceId";
+    static final String USER_ID = "userId";
+    static final String OWNER_EMAIL = "ownerEmail";
+
+    private static final RowMapper<Map<String, Object>> ROW = (rs, rowNum) -> {
+        ResultSetMetaData meta = rs.getMetaData();
+        Map<String, Object> row = new HashMap<>(meta.getColumnCount() * 2);
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            Object value = rs.getObject(i);
+            row.put(meta.getColumnLabel(i), value instanceof Timestamp timestamp ? timestamp.toInstant().toString() : value);
+        }
+        return row;
+    };
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public GraphQlProjections(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<Map<String, Object>> races(Set<String> fields) {
+        return jdbc.query("SELECT " + select(RACE_COLUMNS, fields, "r.id AS \"id\"") + " FROM races r ORDER BY r.name",
+                Map.of(), ROW);
+    }
+
+    public Optional<Map<String, Object>> race(UUID id, Set<String> fields) {
+        return jdbc.query("SELECT " + select(RACE_COLUMNS, fields, "r.id AS \"id\"") + " FROM races r WHERE r.id = :id",
+                Map.of("id", id), ROW).stream().findFirst();
+    }
+
+    public List<Map<String, Object>> racesById(Collection<UUID> ids, Set<String> fields) {
+        return jdbc.query("SELECT " + select(RACE_COLUMNS, fields, "r.id AS \"id\"") + " FROM races r WHERE r.id IN (:ids)",
+                Map.of("ids", ids), ROW);
+    }
+
+    public List<Map<String, Object>> applications(Set<String> fields) {
+        return jdbc.query("SELECT " + applicationSelect(fields) + " FROM applications a ORDER BY a.created_at, a.id",
+                Map.of(), ROW);
+    }
+
+    public List<Map<String, Object>> applicationsOf(String email, Set<String> fields) {
+        return jdbc.query("SELECT " + applicationSelect(fields) + """
+                 FROM applications a
+                WHERE a.user_id = (SELECT u.id FROM users u WHERE u.email = :email)
+                ORDER BY a.created_at, a.id
+                """, Map.of("email", email), ROW);
+    }
+
+    /** Includes the owner's email for the access check, so checking ownership costs no second query. */
+    public Optional<Map<String, Object>> application(UUID id, Set<String> fields) {
+        return jdbc.query("SELECT " + applicationSelect(fields) + ", u.email AS \"" + OWNER_EMAIL + "\"" + """
+                 FROM applications a JOIN users u ON u.id = a.user_id
+                WHERE a.id = :id
+                """, Map.of("id", id), ROW).stream().findFirst();
+    }
+
+    public List<Map<String, Object>> applicationsByRace(Collection<UUID> raceIds, Set<String> fields) {
+        return jdbc.query("SELECT " + applicationSelect(fields)
+                        + " FROM applications a WHERE a.race_id IN (:ids) ORDER BY a.created_at, a.id",
+                Map.of("ids", raceIds), ROW);
+    }
+
+    public List<Map<String, Object>> usersById(Collection<UUID> ids, Set<String> fields) {
+        return jdbc.query("SELECT " + select(USER_COLUMNS, fields, "u.id AS \"id\"") + " FROM users u WHERE u.id IN (:ids)",
+                Map.of("ids", ids), ROW);
+    }
+
+    private static String applicationSelect(Set<String> fields) {
+        return select(APPLICATION_COLUMNS, fields,
+                "a.id AS \"id\"", "a.race_id AS \"" + RACE_ID + "\"", "a.user_id AS \"" + USER_ID + "\"");
+    }
+
+    private static String select(Map<String, String> columns, Set<String> fields, String... keys) {
+        Set<String> selected = new LinkedHashSet<>(List.of(keys));
+        for (String field : fields) {
+            String column = columns.get(field);
+            if (column != null) {
+                selected.add(column + " AS \"" + field + "\"");
+            }
+        }
+        return String.join(", ", selected);
+    }
+}
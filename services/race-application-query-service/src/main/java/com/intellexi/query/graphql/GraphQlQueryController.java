@@ -0,0 +1,95 @@
+package com.intellexi.query.graphql;
+
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import org.dataloader.DataLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * POST /graphql. Access follows the REST endpoints: applicants see their own applications and get FORBIDDEN for
+ * anyone else's, administrators see everything, and only administrators may list a race's applications.
+ */
+@Controller
+@PreAuthorize("hasAnyRole('Applicant','Administrator')")
+public class GraphQlQueryController {
+    private static final Logger logger = LoggerFactory.getLogger(GraphQlQueryController.class);
+    private final GraphQlProjections projections;
+
+    public GraphQlQueryController(GraphQlProjections projections) {
+        this.projections = projections;
+    }
+
+    @QueryMapping
+    public List<Map<String, Object>> races(DataFetchingFieldSelectionSet selection) {
+        List<Map<String, Object>> races = projections.races(GraphQlConfig.fields(selection));
+        logger.info("Successfully retrieved {} races (graphql)", races.size());
+        return races;
+    }
+
+    @QueryMapping
+    public Map<String, Object> race(@Argument UUID id, DataFetchingFieldSelectionSet selection) {
+        return projections.race(id, GraphQlConfig.fields(selection)).orElse(null);
+    }
+
+    @QueryMapping
+    public List<Map<String, Object>> applications(Authentication auth, DataFetchingFieldSelectionSet selection) {
+        String user = String.valueOf(auth.getPrincipal());
+        List<Map<String, Object>> applications = isAdmin(auth)
+                ? projections.applications(GraphQlConfig.fields(selection))
+                : projections.applicationsOf(user, GraphQlConfig.fields(selection));
+        logger.info("Successfully retrieved {} applications for user: {} (graphql)", applications.size(), user);
+        return applications;
+    }
+
+    @QueryMapping
+    public Map<String, Object> application(@Argument UUID id, Authentication auth, DataFetchingFieldSelectionSet selection) {
+        String user = String.valueOf(auth.getPrincipal());
+        return projections.application(id, GraphQlConfig.fields(selection)).map(application -> {
+            // Emails are unique, so matching the owner's email is the same check as matching user ids
+            if (!isAdmin(auth) && !user.equals(application.get(GraphQlProjections.OWNER_EMAIL))) {
+                logger.warn("Access denied for application - id: {}, requestUser: {} (graphql)", id, user);
+                throw new AccessDeniedException("Not the owner of application " + id);
+            }
+            return application;
+        }).orElse(null);
+    }
+
+    @SchemaMapping(typeName = "Application", field = "race")
+    public CompletableFuture<Map<String, Object>> applicationRace(DataFetchingEnvironment env) {
+        Map<String, Object> application = env.getSource();
+        DataLoader<UUID, Map<String, Object>> races = env.getDataLoader(GraphQlConfig.RACES);
+        return races.load((UUID) application.get(GraphQlProjections.RACE_ID), env.getSelectionSet());
+    }
+
+    @SchemaMapping(typeName = "Application", field = "user")
+    public CompletableFuture<Map<String, Object>> applicationUser(DataFetchingEnvironment env) {
+        Map<String, Object> application = env.getSource();
+        DataLoader<UUID, Map<String, Object>> users = env.getDataLoader(GraphQlConfig.USERS);
+        return users.load((UUID) application.get(GraphQlProjections.USER_ID), env.getSelectionSet());
+    }
+
+    @SchemaMapping(typeName = "Race", field = "applications")
+    @PreAuthorize("hasRole('Administrator')")
+    public CompletableFuture<List<Map<String, Object>>> raceApplications(DataFetchingEnvironment env) {
+        Map<String, Object> race = env.getSource();
+        DataLoader<UUID, List<Map<String, Object>>> applications = env.getDataLoader(GraphQlConfig.RACE_APPLICATIONS);
+        return applications.load((UUID) race.get("id"), env.getSelectionSet());
+    }
+
+    private static boolean isAdmin(Authentication auth) {
+        return auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_Administrator"));
+    }
+}
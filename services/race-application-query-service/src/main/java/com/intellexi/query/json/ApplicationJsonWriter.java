@@ -0,0 +1,89 @@
+package com.intellexi.query.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.intellexi.query.dto.ApplicationWithUserDto;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Writes application lists in the same JSON shape Jackson gives {@link ApplicationWithUserDto}, without going
+ * through the converter on the way. Rows from {@link ApplicationRows} go straight from the result set to the
+ * generator with pre-encoded field names; lists already held in memory go through an ObjectWriter resolved once.
+ */
+@Component
+public class ApplicationJsonWriter {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString RACE_ID = new SerializedString("raceId");
+    private static final SerializedString USER_ID = new SerializedString("userId");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString CLUB = new SerializedString("club");
+
+    private final JsonFactory jsonFactory;
+    private final ObjectWriter listWriter;
+
+    public ApplicationJsonWriter(ObjectMapper objectMapper) {
+        // Jackson's default buffer pool is thread-local, so every virtual thread would start with fresh buffers;
+        // a shared pool hands the same ones from request to request whichever thread serves it
+        this.jsonFactory = objectMapper.getFactory().rebuild()
+                .recyclerPool(JsonRecyclerPools.sharedConcurrentDequePool())
+                .build();
+        this.listWriter = objectMapper.writerFor(
+                objectMapper.getTypeFactory().constructCollectionType(List.class, ApplicationWithUserDto.class));
+    }
+
+    /** A UTF-8 generator over {@code out} whose buffers come from, and return on close to, the shared pool. */
+    public JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return jsonFactory.createGenerator(out);
+    }
+
+    public void writeList(OutputStream out, List<ApplicationWithUserDto> applications) throws IOException {
+        try (JsonGenerator json = createGenerator(out)) {
+            listWriter.writeValue(json, applications);
+        }
+    }
+
+    /** Writes each {@link ApplicationRows} row as one array element. */
+    public RowCallbackHandler rowWriter(JsonGenerator json) {
+        return rs -> {
+            try {
+                writeRow(json, rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getString(6), rs.getString(7));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    // Ids are written as the driver's text form of the uuid, which is what Jackson writes for a UUID
+    public void writeRow(JsonGenerator json, String id, String raceId, String userId, String firstName,
+                         String lastName, String email, String club) throws IOException {
+        json.writeStartObject();
+        json.writeFieldName(ID);
+        json.writeString(id);
+        json.writeFieldName(RACE_ID);
+        json.writeString(raceId);
+        json.writeFieldName(USER_ID);
+        json.writeString(userId);
+        json.writeFieldName(FIRST_NAME);
+        json.writeString(firstName);
+        json.writeFieldName(LAST_NAME);
+        json.writeString(lastName);
+        json.writeFieldName(EMAIL);
+        json.writeString(email);
+        json.writeFieldName(CLUB);
+        json.writeString(club);
+        json.writeEndObject();
+    }
+}
@@ -0,0 +1,48 @@
+package com.intellexi.query.json;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+/**
+ * Application rows joined to their applicant, read with a server-side cursor and handed to a callback one at a time
+ * so no entity, DTO or list is built for them. Columns are in {@link ApplicationJsonWriter}'s order: id, race_id,
+ * user_id, first_name, last_name, email, club.
+ */
+@Component
+@Transactional(readOnly = true)
+public class ApplicationRows {
+    // The PostgreSQL driver only uses a cursor inside a transaction; without one it buffers the whole result
+    private static final int FETCH_SIZE = 500;
+    private static final String SELECT = "SELECT a.id, a.race_id, a.user_id, u.first_name, u.last_name, u.email, u.club "
+            + "FROM applications a JOIN users u ON u.id = a.user_id";
+
+    private final JdbcTemplate jdbc;
+
+    public ApplicationRows(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(FETCH_SIZE);
+    }
+
+    /** Streams every application; returns the number of rows. */
+    public int forEach(RowCallbackHandler handler) {
+        return query(SELECT, handler);
+    }
+
+    /** Streams the applications of the user with the given email, in one statement; returns the number of rows. */
+    public int forEachOf(String email, RowCallbackHandler handler) {
+        return query(SELECT + " WHERE u.email = ?", handler, email);
+    }
+
+    private int query(String sql, RowCallbackHandler handler, Object... args) {
+        int[] rows = {0};
+        jdbc.query(sql, rs -> {
+            handler.processRow(rs);
+            rows[0]++;
+        }, args);
+        return rows[0];
+    }
+}
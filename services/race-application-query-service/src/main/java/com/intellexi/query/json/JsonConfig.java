@@ -0,0 +1,18 @@
+package com.intellexi.query.json;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JsonConfig {
+
+    /**
+     * Boot registers every {@code Module} bean with its ObjectMapper. Blackbird replaces Jackson's reflective getter
+     * and setter calls with generated lambdas, for every DTO the service reads or writes.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,25 @@
+package com.intellexi.query.logging;
+
+import ch.qos.logback.core.status.OnErrorConsoleStatusListener;
+import ch.qos.logback.core.status.Status;
+
+/**
+ * Logback's OnErrorConsoleStatusListener narrowed to ERROR statuses. The stock listener echoes every status to
+ * stderr, including the deprecation warnings Boot's defaults.xml triggers on each start; configuration errors are
+ * what an operator needs to see. Registered from logback-spring.xml.
+ */
+public class ErrorStatusListener extends OnErrorConsoleStatusListener {
+    @Override
+    public void start() {
+        // No replay of the statuses logged before the listener started; they are mostly those warnings
+        setRetrospective(0);
+        super.start();
+    }
+
+    @Override
+    public void addStatusEvent(Status status) {
+        if (status.getEffectiveLevel() >= Status.ERROR) {
+            super.addStatusEvent(status);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.intellexi.query.memory;
+
+import com.intellexi.query.dto.ApplicationWithUserDto;
+import com.intellexi.query.model.Race;
+import com.intellexi.query.model.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Whole read projection (races, users, applications) held in compact arrays indexed by slot.
+ * Postgres stays the durable copy: the model is loaded once at startup, then {@code EventListeners}
+ * applies each committed change and other replicas' changes arrive as cache invalidations.
+ * Writers are serialized by the write lock; any number of readers share the read lock.
+ */
+@Component
+@ConditionalOnProperty(name = "app.read-model.in-memory", havingValue = "true")
+public class InMemoryReadModel {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryReadModel.class);
+    private static final int NONE = UuidTable.NONE;
+    private static final User.Role[] ROLES = User.Role.values();
+
+    private final StampedLock lock = new StampedLock();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final UuidTable races = new UuidTable(1024);
+    private String[] raceName = new String[1024];
+    private String[] raceDistance = new String[1024];
+    private final SlotLists raceApplications = new SlotLists();
+    private volatile long raceVersion;
+    private volatile RaceSnapshot racesByName;
+
+    private final UuidTable users = new UuidTable(1024);
+    private String[] userFirstName = new String[1024];
+    private String[] userLastName = new String[1024];
+    private String[] userEmail = new String[1024];
+    private String[] userClub = new String[1024];
+    private byte[] userRole = new byte[1024];
+    private final Map<String, Integer> userByEmail = new HashMap<>();
+    private final SlotLists userApplications = new SlotLists();
+
+    private final UuidTable applications = new UuidTable(16 * 1024);
+    private int[] applicationRace = new int[16 * 1024];
+    private int[] applicationUser = new int[16 * 1024];
+
+    // Clubs and distances repeat across thousands of rows
+    private final Map<String, String> interned = new HashMap<>();
+
+    public InMemoryReadModel(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(10_000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Runs before the listener containers start, so no event can be applied ahead of the snapshot
+    @PostConstruct
+    void load() {
+        long started = System.nanoTime();
+        long stamp = lock.writeLock();
+        try {
+            // Postgres only streams with a fetch size inside a transaction
+            readOnlyTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.query("SELECT id, name, distance FROM races",
+                        (RowCallbackHandler) rs -> putRaceLocked(uuid(rs, 1), rs.getString(2), rs.getString(3)));
+                jdbcTemplate.query("SELECT id, first_name, last_name, email, club, role FROM users",
+                        (RowCallbackHandler) rs -> putUserLocked(uuid(rs, 1), rs.getString(2), rs.getString(3), rs.getString(4),
+                                rs.getString(5), User.Role.valueOf(rs.getString(6))));
+                jdbcTemplate.query("SELECT id, race_id, user_id FROM applications",
+                        (RowCallbackHandler) rs -> putApplicationLocked(uuid(rs, 1), uuid(rs, 2), uuid(rs, 3)));
+            });
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        logger.info("Loaded in-memory read model - races: {}, users: {}, applications: {} in {} ms (~{} KB of index arrays)",
+                races.size(), users.size(), applications.size(), (System.nanoTime() - started) / 1_000_000, footprintBytes() / 1024);
+    }
+
+    // ---- writes ----
+
+    public void putRace(UUID id, String name, String distance) {
+        long stamp = lock.writeLock();
+        try {
+            putRaceLocked(id, name, distance);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Removes the race and, like the ON DELETE CASCADE in the schema, all of its applications. */
+    public void removeRace(UUID id) {
+        long stamp = lock.writeLock();
+        try {
+            removeRaceLocked(id);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void putUser(User user) {
+        long stamp = lock.writeLock();
+        try {
+            putUserLocked(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getClub(), user.getRole());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void putApplication(UUID id, UUID raceId, User user) {
+        if (!containsRace(raceId)) {
+            // Race was projected by another replica and its invalidation has not arrived yet
+            refresh("Race", raceId);
+        }
+        long stamp = lock.writeLock();
+        try {
+            putUserLocked(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getClub(), user.getRole());
+            putApplicationLocked(id, raceId, user.getId());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void removeApplication(UUID id) {
+        long stamp = lock.writeLock();
+        try {
+            removeApplicationLocked(id);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Re-reads one row from Postgres after another replica changed it. */
+    public void refresh(String entity, UUID id) {
+        switch (entity) {
+            case "Race" -> {
+                List<Race> found = jdbcTemplate.query("SELECT id, name, distance FROM races WHERE id = ?",
+                        (rs, n) -> new Race(uuid(rs, 1), rs.getString(2), rs.getString(3)), id);
+                if (found.isEmpty()) removeRace(id);
+                else putRace(id, found.get(0).getName(), found.get(0).getDistance());
+            }
+            case "User" -> jdbcTemplate.query("SELECT id, first_name, last_name, email, club, role FROM users WHERE id = ?",
+                    (rs, n) -> new User(uuid(rs, 1), rs.getString(2), rs.getString(3), rs.getString(4), null,
+                            rs.getString(5), User.Role.valueOf(rs.getString(6))), id)
+                    .forEach(this::putUser);
+            case "Application" -> {
+                List<UUID[]> found = jdbcTemplate.query("SELECT race_id, user_id FROM applications WHERE id = ?",
+                        (rs, n) -> new UUID[] { uuid(rs, 1), uuid(rs, 2) }, id);
+                if (found.isEmpty()) {
+                    removeApplication(id);
+                    return;
+                }
+                UUID raceId = found.get(0)[0];
+                UUID userId = found.get(0)[1];
+                if (!containsRace(raceId)) refresh("Race", raceId);
+                if (!containsUser(userId)) refresh("User", userId);
+                long stamp = lock.writeLock();
+                try {
+                    putApplicationLocked(id, raceId, userId);
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+            }
+            default -> logger.warn("Cannot refresh unknown entity {} - id: {}", entity, id);
+        }
+    }
+
+    // ---- reads ----
+
+    public List<Race> races() {
+        RaceSnapshot snapshot = racesByName;
+        if (snapshot != null && snapshot.version() == raceVersion) return snapshot.races();
+
+        long version;
+        List<Race> result;
+        long stamp = lock.readLock();
+        try {
+            version = raceVersion;
+            result = new ArrayList<>(races.size());
+            for (int slot = races.nextLive(0); slot >= 0; slot = races.nextLive(slot + 1)) {
+                result.add(new Race(races.uuid(slot), raceName[slot], raceDistance[slot]));
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        result.sort(Comparator.comparing(Race::getName));
+        // A snapshot built from an older version is never served, even if it is published late
+        racesByName = new RaceSnapshot(version, List.copyOf(result));
+        return result;
+    }
+
+    public Optional<Race> race(UUID id) {
+        long stamp = lock.readLock();
+        try {
+            int slot = races.find(id);
+            return slot == NONE ? Optional.empty() : Optional.of(new Race(id, raceName[slot], raceDistance[slot]));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public Optional<User> userByEmail(String email) {
+        long stamp = lock.readLock();
+        try {
+            Integer slot = userByEmail.get(email);
+            return slot == null ? Optional.empty() : Optional.of(user(slot));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public List<ApplicationWithUserDto> applications() {
+        long stamp = lock.readLock();
+        try {
+            List<ApplicationWithUserDto> result = new ArrayList<>(applications.size());
+            for (int slot = applications.nextLive(0); slot >= 0; slot = applications.nextLive(slot + 1)) {
+                result.add(application(slot));
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public List<ApplicationWithUserDto> applicationsOf(String email) {
+        long stamp = lock.readLock();
+        try {
+            Integer userSlot = userByEmail.get(email);
+            if (userSlot == null) return List.of();
+            int size = userApplications.size(userSlot);
+            int[] slots = userApplications.values(userSlot);
+            List<ApplicationWithUserDto> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(application(slots[i]));
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public Optional<ApplicationWithUserDto> application(UUID id) {
+        long stamp = lock.readLock();
+        try {
+            int slot = applications.find(id);
+            return slot == NONE ? Optional.empty() : Optional.of(application(slot));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Approximate bytes held by the arrays and lists, excluding the shared String instances. */
+    public long footprintBytes() {
+        long stamp = lock.readLock();
+        try {
+            // Compressed oops: 4 bytes per String reference
+            return races.footprintBytes() + 8L * raceName.length + raceApplications.footprintBytes()
+                    + users.footprintBytes() + 17L * userEmail.length + userApplications.footprintBytes()
+                    + applications.footprintBytes() + 8L * applicationRace.length;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // ---- internals, caller holds the lock ----
+
+    private boolean containsRace(UUID id) {
+        long stamp = lock.readLock();
+        try {
+            return races.find(id) != NONE;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean containsUser(UUID id) {
+        long stamp = lock.readLock();
+        try {
+            return users.find(id) != NONE;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void putRaceLocked(UUID id, String name, String distance) {
+        int slot = races.insert(id);
+        if (slot >= raceName.length) {
+            int grown = raceName.length + (raceName.length >> 1);
+            raceName = Arrays.copyOf(raceName, grown);
+            raceDistance = Arrays.copyOf(raceDistance, grown);
+        }
+        raceName[slot] = name;
+        raceDistance[slot] = intern(distance);
+        raceVersion++;
+    }
+
+    private void removeRaceLocked(UUID id) {
+        int slot = races.find(id);
+        if (slot == NONE) return;
+        int size = raceApplications.size(slot);
+        int[] applicationSlots = Arrays.copyOf(raceApplications.values(slot), size);
+        for (int applicationSlot : applicationSlots) {
+            userApplications.remove(applicationUser[applicationSlot], applicationSlot);
+            applications.remove(applications.uuid(applicationSlot));
+        }
+        raceApplications.clear(slot);
+        races.remove(id);
+        raceName[slot] = null;
+        raceDistance[slot] = null;
+        raceVersion++;
+    }
+
+    private void putUserLocked(UUID id, String firstName, String lastName, String email, String club, User.Role role) {
+        int slot = users.insert(id);
+        if (slot >= userEmail.length) {
+            int grown = userEmail.length + (userEmail.length >> 1);
+            userFirstName = Arrays.copyOf(userFirstName, grown);
+            userLastName = Arrays.copyOf(userLastName, grown);
+            userEmail = Arrays.copyOf(userEmail, grown);
+            userClub = Arrays.copyOf(userClub, grown);
+            userRole = Arrays.copyOf(userRole, grown);
+        }
+        if (userEmail[slot] != null && !userEmail[slot].equals(email)) {
+            userByEmail.remove(userEmail[slot]);
+        }
+        userFirstName[slot] = firstName;
+        userLastName[slot] = lastName;
+        userEmail[slot] = email;
+        userClub[slot] = intern(club);
+        userRole[slot] = (byte) role.ordinal();
+        userByEmail.put(email, slot);
+    }
+
+    private void putApplicationLocked(UUID id, UUID raceId, UUID userId) {
+        int raceSlot = races.find(raceId);
+        int userSlot = users.find(userId);
+        if (raceSlot == NONE || userSlot == NONE) {
+            logger.warn("Skipping application {} - race {} or user {} is not in the read model", id, raceId, userId);
+            return;
+        }
+        int existing = applications.find(id);
+        if (existing != NONE) {
+            raceApplications.remove(applicationRace[existing], existing);
+            userApplications.remove(applicationUser[existing], existing);
+        }
+        int slot = applications.insert(id);
+        if (slot >= applicationRace.length) {
+            int grown = applicationRace.length + (applicationRace.length >> 1);
+            applicationRace = Arrays.copyOf(applicationRace, grown);
+            applicationUser = Arrays.copyOf(applicationUser, grown);
+        }
+        applicationRace[slot] = raceSlot;
+        applicationUser[slot] = userSlot;
+        raceApplications.add(raceSlot, slot);
+        userApplications.add(userSlot, slot);
+    }
+
+    private void removeApplicationLocked(UUID id) {
+        int slot = applications.find(id);
+        if (slot == NONE) return;
+        raceApplications.remove(applicationRace[slot], slot);
+        userApplications.remove(applicationUser[slot], slot);
+        applications.remove(id);
+    }
+
+    private User user(int slot) {
+        return new User(users.uuid(slot), userFirstName[slot], userLastName[slot], userEmail[slot], null,
+                userClub[slot], ROLES[userRole[slot]]);
+    }
+
+    private ApplicationWithUserDto application(int slot) {
+        int raceSlot = applicationRace[slot];
+        int userSlot = applicationUser[slot];
+        return new ApplicationWithUserDto(applications.uuid(slot), races.uuid(raceSlot), users.uuid(userSlot),
+                userFirstName[userSlot], userLastName[userSlot], userEmail[userSlot], userClub[userSlot]);
+    }
+
+    private String intern(String value) {
+        return value == null ? null : interned.computeIfAbsent(value, v -> v);
+    }
+
+    private record RaceSnapshot(long version, List<Race> races) {}
+
+    private static UUID uuid(ResultSet rs, int column) throws SQLException {
+        return rs.getObject(column, UUID.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.intellexi.query.memory;
+
+import java.util.Arrays;
+
+/**
+ * Unordered int lists keyed by an owner slot, e.g. race slot -> application slots.
+ * Not thread-safe; {@link InMemoryReadModel} guards every access.
+ */
+final class SlotLists {
+    private static final int[] EMPTY = new int[0];
+
+    private int[][] lists = new int[16][];
+    private int[] sizes = new int[16];
+
+    int size(int owner) { return owner < sizes.length ? sizes[owner] : 0; }
+
+    /** Backing array of the owner's list; only the first {@link #size(int)} entries are valid. */
+    int[] values(int owner) {
+        int[] values = owner < lists.length ? lists[owner] : null;
+        return values == null ? EMPTY : values;
+    }
+
+    void add(int owner, int value) {
+        if (owner >= lists.length) {
+            int grown = Math.max(owner + 1, lists.length + (lists.length >> 1));
+            lists = Arrays.copyOf(lists, grown);
+            sizes = Arrays.copyOf(sizes, grown);
+        }
+        int[] values = lists[owner];
+        int size = sizes[owner];
+        if (values == null) {
+            values = lists[owner] = new int[4];
+        } else if (size == values.length) {
+            values = lists[owner] = Arrays.copyOf(values, size + (size >> 1));
+        }
+        values[size] = value;
+        sizes[owner] = size + 1;
+    }
+
+    void remove(int owner, int value) {
+        int size = size(owner);
+        int[] values = values(owner);
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                values[i] = values[size - 1];
+                sizes[owner] = size - 1;
+                return;
+            }
+        }
+    }
+
+    void clear(int owner) {
+        if (owner < lists.length) {
+            lists[owner] = null;
+            sizes[owner] = 0;
+        }
+    }
+
+    long footprintBytes() {
+        long bytes = 4L * sizes.length + 4L * lists.length;
+        for (int[] values : lists) {
+            if (values != null) bytes += 16 + 4L * values.length;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,146 @@
+package com.intellexi.query.memory;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.UUID;
+
+/**
+ * Assigns dense int slots to UUIDs and finds them again.
+ * Each UUID is stored once, as two longs per slot. The lookup table is an open-addressing
+ * int array of slots (linear probing, backward-shift deletion), so there are no boxed keys and no
+ * tombstones. Callers keep their own payload arrays indexed by slot. Not thread-safe;
+ * {@link InMemoryReadModel} guards every access.
+ */
+final class UuidTable {
+    static final int NONE = -1;
+    private static final int MAX_LOAD_PERCENT = 60;
+
+    private int[] table;
+    private int mask;
+    private long[] msbs;
+    private long[] lsbs;
+    private final BitSet live = new BitSet();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWater;
+    private int size;
+
+    UuidTable(int expectedSize) {
+        int slots = Math.max(16, expectedSize);
+        msbs = new long[slots];
+        lsbs = new long[slots];
+        allocateTable(tableSizeFor(slots));
+    }
+
+    int size() { return size; }
+
+    /** Exclusive upper bound of slots handed out so far; payload arrays must be at least this long. */
+    int slotLimit() { return highWater; }
+
+    boolean isLive(int slot) { return live.get(slot); }
+
+    int nextLive(int fromSlot) { return live.nextSetBit(fromSlot); }
+
+    UUID uuid(int slot) { return new UUID(msbs[slot], lsbs[slot]); }
+
+    int find(UUID id) { return find(id.getMostSignificantBits(), id.getLeastSignificantBits()); }
+
+    int find(long msb, long lsb) {
+        int i = home(msb, lsb);
+        while (true) {
+            int slot = table[i];
+            if (slot == NONE) return NONE;
+            if (msbs[slot] == msb && lsbs[slot] == lsb) return slot;
+            i = (i + 1) & mask;
+        }
+    }
+
+    /** Returns the existing slot for the id, or assigns a new one. */
+    int insert(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int existing = find(msb, lsb);
+        if (existing != NONE) return existing;
+
+        if ((size + 1) * 100L > (long) table.length * MAX_LOAD_PERCENT) {
+            allocateTable(table.length << 1);
+        }
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : highWater++;
+        if (slot >= msbs.length) {
+            int grown = msbs.length + (msbs.length >> 1);
+            msbs = Arrays.copyOf(msbs, grown);
+            lsbs = Arrays.copyOf(lsbs, grown);
+        }
+        msbs[slot] = msb;
+        lsbs[slot] = lsb;
+        live.set(slot);
+        int i = home(msb, lsb);
+        while (table[i] != NONE) i = (i + 1) & mask;
+        table[i] = slot;
+        size++;
+        return slot;
+    }
+
+    /** Removes the id and returns the slot it held, which may be reused by a later insert. */
+    int remove(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int i = home(msb, lsb);
+        while (true) {
+            int slot = table[i];
+            if (slot == NONE) return NONE;
+            if (msbs[slot] == msb && lsbs[slot] == lsb) break;
+            i = (i + 1) & mask;
+        }
+        int removed = table[i];
+
+        // Shift later members of the probe run back so lookups never stop early
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            int slot = table[j];
+            if (slot == NONE) break;
+            int home = home(msbs[slot], lsbs[slot]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                table[hole] = slot;
+                hole = j;
+            }
+        }
+        table[hole] = NONE;
+
+        live.clear(removed);
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+        freeSlots[freeCount++] = removed;
+        size--;
+        return removed;
+    }
+
+    long footprintBytes() {
+        return 4L * table.length + 16L * msbs.length + 4L * freeSlots.length + msbs.length / 8;
+    }
+
+    private void allocateTable(int capacity) {
+        table = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(table, NONE);
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            int i = home(msbs[slot], lsbs[slot]);
+            while (table[i] != NONE) i = (i + 1) & mask;
+            table[i] = slot;
+        }
+    }
+
+    private int home(long msb, long lsb) {
+        long h = msb ^ (lsb * 0x9E3779B97F4A7C15L);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private static int tableSizeFor(int entries) {
+        long needed = entries * 100L / MAX_LOAD_PERCENT + 1;
+        return Integer.highestOneBit((int) Math.min(needed, 1 << 30) - 1) << 1;
+    }
+}
@@ -0,0 +1,151 @@
+package com.intellexi.query.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Spreads application events over partitions, each a queue with a single consumer, so the events of one application
+ * apply in the order they were published while different applications apply in parallel. The command services publish
+ * each application event on application.events.&lt;bucket&gt;, one of {@value #BUCKETS} buckets by application id, and
+ * partition k takes the buckets b with b % partitions == k. Partition 0 is query.applications, listener
+ * {@value EventListeners#APPLICATIONS}, and also takes events published without a bucket, so one partition is the
+ * queue and listener the service always had; partition k is query.applications.k, listener applications-k.
+ *
+ * Bindings outlive the service on a durable queue, so whenever a connection opens, after RabbitAdmin has declared
+ * the current ones, the buckets each queue no longer owns are unbound and no event reaches two partitions once the
+ * count changes. Queues of partitions beyond the count keep what they already hold; they are logged, to be drained
+ * by a run with the old count or deleted by hand.
+ */
+public class ApplicationPartitions implements ConnectionListener {
+    /** Buckets the command services publish to, and so the most partitions there can be. */
+    public static final int BUCKETS = 16;
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationPartitions.class);
+
+    private final String exchange;
+    private final String queue;
+    private final String routingKey;
+    private final int count;
+    private final AmqpAdmin amqpAdmin;
+
+    public ApplicationPartitions(String exchange, String queue, String routingKey, int count, AmqpAdmin amqpAdmin) {
+        if (count < 1 || count > BUCKETS) {
+            throw new IllegalArgumentException("Application partitions must be between 1 and " + BUCKETS + ", not " + count);
+        }
+        this.exchange = exchange;
+        this.queue = queue;
+        this.routingKey = routingKey;
+        this.count = count;
+        this.amqpAdmin = amqpAdmin;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public String queue(int partition) {
+        return partition == 0 ? queue : queue + "." + partition;
+    }
+
+    public String listenerId(int partition) {
+        return partition == 0 ? EventListeners.APPLICATIONS : EventListeners.APPLICATIONS + "-" + partition;
+    }
+
+    Declarables declarables() {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int partition = 0; partition < count; partition++) {
+            declarables.add(QueueBuilder.durable(queue(partition)).build());
+        }
+        declarables.add(binding(0, routingKey));
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            declarables.add(binding(bucket % count, bucketKey(bucket)));
+        }
+        return new Declarables(declarables);
+    }
+
+    // One container per partition from Boot's factory, like a @RabbitListener; concurrency 1 keeps the order
+    void registerListeners(RabbitListenerEndpointRegistrar registrar, EventListeners eventListeners) {
+        Method method;
+        try {
+            method = EventListeners.class.getMethod("onApplicationEvent", Map.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+        for (int partition = 0; partition < count; partition++) {
+            MethodRabbitListenerEndpoint endpoint = new MethodRabbitListenerEndpoint();
+            endpoint.setId(listenerId(partition));
+            endpoint.setQueueNames(queue(partition));
+            endpoint.setConcurrency("1");
+            endpoint.setBean(eventListeners);
+            endpoint.setMethod(method);
+            endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+            registrar.registerEndpoint(endpoint);
+        }
+    }
+
+    @Override
+    public void onCreate(Connection connection) {
+        try {
+            for (int partition = 0; partition < BUCKETS; partition++) {
+                unbindStale(partition);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not remove stale application partition bindings", e);
+        }
+    }
+
+    private void unbindStale(int partition) {
+        if (partition >= count) {
+            Properties retired = amqpAdmin.getQueueProperties(queue(partition));
+            if (retired == null) {
+                return;
+            }
+            Object messages = retired.get(RabbitAdmin.QUEUE_MESSAGE_COUNT);
+            if (messages instanceof Number n && n.longValue() > 0) {
+                logger.warn("Application partition queue {} is beyond the {} partitions and still holds {} messages",
+                        queue(partition), count, messages);
+            }
+        }
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (bucket % count != partition) {
+                unbind(binding(partition, bucketKey(bucket)));
+            }
+        }
+    }
+
+    // RabbitMQ ignores an unbind of a binding that does not exist; other brokers answer 404, which is just as good
+    private void unbind(Binding binding) {
+        try {
+            amqpAdmin.removeBinding(binding);
+        } catch (AmqpException e) {
+            logger.debug("Binding {} of {} not removed: {}", binding.getRoutingKey(), binding.getDestination(), e.getMessage());
+        }
+    }
+
+    private String bucketKey(int bucket) {
+        return routingKey + "." + bucket;
+    }
+
+    private Binding binding(int partition, String key) {
+        return new Binding(queue(partition), Binding.DestinationType.QUEUE, exchange, key, null);
+    }
+}
@@ -0,0 +1,22 @@
+package com.intellexi.query.messaging;
+
+import java.util.List;
+import java.util.UUID;
+
+public class CacheInvalidation {
+    private UUID origin;
+    private String entity;
+    private List<UUID> ids;
+
+    public CacheInvalidation() {}
+
+    public CacheInvalidation(UUID origin, String entity, List<UUID> ids) {
+        this.origin = origin;
+        this.entity = entity;
+        this.ids = ids;
+    }
+
+    public UUID getOrigin() { return origin; }
+    public String getEntity() { return entity; }
+    public List<UUID> getIds() { return ids; }
+}
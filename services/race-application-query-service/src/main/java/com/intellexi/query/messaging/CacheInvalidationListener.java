@@ -0,0 +1,64 @@
+package com.intellexi.query.messaging;
+
+import com.intellexi.query.memory.InMemoryReadModel;
+import com.intellexi.query.model.Application;
+import com.intellexi.query.model.Race;
+import com.intellexi.query.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class CacheInvalidationListener {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+    private static final Map<String, Class<?>> PROJECTED_ENTITIES = Map.of(
+            Race.class.getSimpleName(), Race.class,
+            User.class.getSimpleName(), User.class,
+            Application.class.getSimpleName(), Application.class
+    );
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationPublisher publisher;
+    private final Optional<InMemoryReadModel> inMemoryReadModel;
+
+    public CacheInvalidationListener(EntityManagerFactory entityManagerFactory, CacheInvalidationPublisher publisher,
+                                     Optional<InMemoryReadModel> inMemoryReadModel) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.publisher = publisher;
+        this.inMemoryReadModel = inMemoryReadModel;
+    }
+
+    @RabbitListener(queues = "#{cacheInvalidationQueue.name}")
+    public void onInvalidation(@Payload CacheInvalidation invalidation) {
+        if (publisher.getInstanceId().equals(invalidation.getOrigin())) {
+            // Our own write already updated the local regions and read model
+            return;
+        }
+        Class<?> entity = PROJECTED_ENTITIES.get(invalidation.getEntity());
+        if (entity == null || invalidation.getIds() == null) {
+            logger.warn("Ignoring cache invalidation for unknown entity - entity: {}", invalidation.getEntity());
+            return;
+        }
+
+        for (UUID id : invalidation.getIds()) {
+            if (entity != Application.class) {
+                entityManagerFactory.getCache().evict(entity, id);
+            }
+            inMemoryReadModel.ifPresent(m -> m.refresh(invalidation.getEntity(), id));
+        }
+        if (entity == User.class) {
+            // Cached findByEmail results hold user ids and may no longer match
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        }
+        logger.debug("Evicted cache entries from replica {} - entity: {}, ids: {}",
+                invalidation.getOrigin(), invalidation.getEntity(), invalidation.getIds());
+    }
+}
@@ -0,0 +1,50 @@
+package com.intellexi.query.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+@Component
+public class CacheInvalidationPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationPublisher.class);
+    private final UUID instanceId = UUID.randomUUID();
+    private final RabbitTemplate rabbitTemplate;
+    private final FanoutExchange invalidationExchange;
+
+    public CacheInvalidationPublisher(RabbitTemplate rabbitTemplate, FanoutExchange invalidationExchange) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.invalidationExchange = invalidationExchange;
+    }
+
+    public UUID getInstanceId() { return instanceId; }
+
+    public void publish(Class<?> entity, UUID id) {
+        CacheInvalidation invalidation = new CacheInvalidation(instanceId, entity.getSimpleName(), List.of(id));
+        // Other replicas must only evict once the change is visible in the database
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() { send(invalidation); }
+            });
+        } else {
+            send(invalidation);
+        }
+    }
+
+    private void send(CacheInvalidation invalidation) {
+        try {
+            rabbitTemplate.convertAndSend(invalidationExchange.getName(), "", invalidation);
+            logger.debug("Broadcast cache invalidation - entity: {}, ids: {}", invalidation.getEntity(), invalidation.getIds());
+        } catch (Exception e) {
+            // The projection change is already committed; a missed broadcast only delays other replicas until eviction
+            logger.error("Failed to broadcast cache invalidation - entity: {}, ids: {}", invalidation.getEntity(), invalidation.getIds(), e);
+        }
+    }
+}
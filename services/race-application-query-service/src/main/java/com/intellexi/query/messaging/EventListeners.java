@@ -1,16 +1,20 @@
 package com.intellexi.query.messaging;
 
+import com.intellexi.query.memory.InMemoryReadModel;
 import com.intellexi.query.model.Application;
 import com.intellexi.query.model.Race;
 import com.intellexi.query.model.User;
 import com.intellexi.query.repo.ApplicationRepository;
 import com.intellexi.query.repo.RaceRepository;
 import com.intellexi.query.repo.UserRepository;
+import com.intellexi.query.stats.StatsProjection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Map;
 import java.util.Optional;
@@ -18,18 +22,32 @@ import java.util.UUID;
 
 @Component
 public class EventListeners {
+    // Listener ids, as ListenerAutoscaler finds the containers
+    static final String RACES = "races";
+    static final String APPLICATIONS = "applications";
     private static final Logger logger = LoggerFactory.getLogger(EventListeners.class);
     private final RaceRepository raceRepository;
     private final ApplicationRepository applicationRepository;
     private final UserRepository userRepository;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final Optional<InMemoryReadModel> inMemoryReadModel;
+    private final StatsProjection statsProjection;
+    // Each change and its counter updates commit together
+    private final TransactionTemplate transactionTemplate;
 
-    public EventListeners(RaceRepository raceRepository, ApplicationRepository applicationRepository, UserRepository userRepository) {
+    public EventListeners(RaceRepository raceRepository, ApplicationRepository applicationRepository, UserRepository userRepository,
+                          CacheInvalidationPublisher cacheInvalidationPublisher, Optional<InMemoryReadModel> inMemoryReadModel,
+                          StatsProjection statsProjection, PlatformTransactionManager transactionManager) {
         this.raceRepository = raceRepository;
         this.applicationRepository = applicationRepository;
         this.userRepository = userRepository;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.inMemoryReadModel = inMemoryReadModel;
+        this.statsProjection = statsProjection;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @RabbitListener(queues = "${app.rabbit.queues.races}")
+    @RabbitListener(id = RACES, queues = "${app.rabbit.queues.races}")
     public void onRaceEvent(@Payload Map<String, Object> payload) {
         logger.info("Received race event - payload keys: {}", payload.keySet());
         logger.debug("Full race event payload: {}", payload);
@@ -45,7 +63,12 @@ public class EventListeners {
                 logger.info("Processing race created event - id: {}, name: '{}', distance: '{}'", raceId, name, distance);
                 try {
                     Race race = new Race(raceId, name, distance);
-                    raceRepository.save(race);
+                    transactionTemplate.executeWithoutResult(status -> {
+                        raceRepository.saveAndFlush(race);
+                        statsProjection.raceCreated(raceId);
+                    });
+                    inMemoryReadModel.ifPresent(m -> m.putRace(raceId, name, distance));
+                    cacheInvalidationPublisher.publish(Race.class, raceId);
                     logger.info("Successfully created race - id: {}, name: '{}'", raceId, name);
                 } catch (org.springframework.dao.DataIntegrityViolationException e) {
                     if (e.getMessage().contains("uk_races_name_distance")) {
@@ -63,16 +86,18 @@ public class EventListeners {
                 String newDistance = payload.get("distance") != null ? payload.get("distance").toString() : null;
                 
                 logger.info("Processing race updated event - id: {}, newName: '{}', newDistance: '{}'", id, newName, newDistance);
-                raceRepository.findById(id).ifPresentOrElse(existing -> {
+                RaceChange change = transactionTemplate.execute(status -> raceRepository.findById(id).map(existing -> {
                     String oldName = existing.getName();
                     String oldDistance = existing.getDistance();
                     
                     if (newName != null) existing.setName(newName);
                     if (newDistance != null) existing.setDistance(newDistance);
                     try {
-                        raceRepository.save(existing);
-                        logger.info("Successfully updated race - id: {}, name: '{}' -> '{}', distance: '{}' -> '{}'", 
-                                   id, oldName, existing.getName(), oldDistance, existing.getDistance());
+                        raceRepository.saveAndFlush(existing);
+                        if (!oldDistance.equals(existing.getDistance())) {
+                            statsProjection.raceDistanceChanged(id, oldDistance, existing.getDistance());
+                        }
+                        return new RaceChange(oldName, oldDistance, existing.getName(), existing.getDistance());
                     } catch (org.springframework.dao.DataIntegrityViolationException e) {
                         if (e.getMessage().contains("uk_races_name_distance")) {
                             logger.error("Cannot update race - another race exists with name '{}' and distance '{}'", existing.getName(), existing.getDistance());
@@ -81,15 +106,27 @@ public class EventListeners {
                         }
                         throw e;
                     }
-                }, () -> {
+                }).orElse(null));
+                if (change == null) {
                     logger.warn("Race not found for update - id: {}", id);
-                });
+                } else {
+                    // After the commit, like create and delete, so a rolled-back update never reaches them
+                    inMemoryReadModel.ifPresent(m -> m.putRace(id, change.name(), change.distance()));
+                    cacheInvalidationPublisher.publish(Race.class, id);
+                    logger.info("Successfully updated race - id: {}, name: '{}' -> '{}', distance: '{}' -> '{}'", 
+                               id, change.oldName(), change.name(), change.oldDistance(), change.distance());
+                }
                 
             } else if (payload.get("id") != null && payload.size() == 1) {
                 // RaceDeleted
                 UUID raceId = UUID.fromString(payload.get("id").toString());
                 logger.info("Processing race deleted event - id: {}", raceId);
-                raceRepository.deleteById(raceId);
+                transactionTemplate.executeWithoutResult(status -> raceRepository.findById(raceId).ifPresent(race -> {
+                    statsProjection.raceDeleting(raceId, race.getDistance());
+                    raceRepository.delete(race);
+                }));
+                inMemoryReadModel.ifPresent(m -> m.removeRace(raceId));
+                cacheInvalidationPublisher.publish(Race.class, raceId);
                 logger.info("Successfully deleted race - id: {}", raceId);
                 
             } else {
@@ -101,7 +138,7 @@ public class EventListeners {
         }
     }
 
-    @RabbitListener(queues = "${app.rabbit.queues.applications}")
+    // Registered once per partition by ApplicationPartitions
     public void onApplicationEvent(@Payload Map<String, Object> payload) {
         logger.info("Received application event - payload keys: {}", payload.keySet());
         logger.debug("Full application event payload: {}", payload);
@@ -115,8 +152,9 @@ public class EventListeners {
                 
                 // Look up user by email to get userId
                 UUID userId = null;
+                Optional<User> userOpt = Optional.empty();
                 if (applicantEmail != null) {
-                    Optional<User> userOpt = userRepository.findByEmail(applicantEmail);
+                    userOpt = userRepository.findByEmail(applicantEmail);
                     if (userOpt.isPresent()) {
                         userId = userOpt.get().getId();
                         logger.debug("Found user ID {} for email: {}", userId, applicantEmail);
@@ -130,7 +168,16 @@ public class EventListeners {
                 
                 try {
                     Application a = new Application(applicationId, raceId, userId);
-                    applicationRepository.save(a);
+                    UUID applicantId = userId;
+                    transactionTemplate.executeWithoutResult(status -> {
+                        applicationRepository.saveAndFlush(a);
+                        statsProjection.applicationAdded(raceId, applicantId);
+                    });
+                    if (userOpt.isPresent()) {
+                        User applicant = userOpt.get();
+                        inMemoryReadModel.ifPresent(m -> m.putApplication(applicationId, raceId, applicant));
+                    }
+                    cacheInvalidationPublisher.publish(Application.class, applicationId);
                     logger.info("Successfully created application - id: {}, email: {}", applicationId, applicantEmail);
                 } catch (org.springframework.dao.DataIntegrityViolationException e) {
                     if (e.getMessage().contains("uk_applications_user_race")) {
@@ -152,7 +199,7 @@ public class EventListeners {
                 if ("Administrator".equals(initiatorRole)) {
                     // Administrators can delete any application
                     logger.info("Admin delete - removing application {}", id);
-                    applicationRepository.deleteById(id);
+                    deleteApplication(id);
                     logger.info("Successfully deleted application by admin - id: {}", id);
                     
                 } else if (initiatorEmail != null) {
@@ -162,7 +209,7 @@ public class EventListeners {
                         userRepository.findByEmail(initiatorEmail).ifPresentOrElse(user -> {
                             if (user.getId().equals(existing.getUserId())) {
                                 logger.info("Applicant delete - removing application {} for user {}", id, initiatorEmail);
-                                applicationRepository.deleteById(id);
+                                deleteApplication(id);
                                 logger.info("Successfully deleted application by applicant - id: {}, user: {}", id, initiatorEmail);
                             } else {
                                 logger.warn("Applicant {} tried to delete application {} owned by different user", 
@@ -179,7 +226,7 @@ public class EventListeners {
                     // If no initiator email provided, treat as applicant and try to delete
                     // This handles cases where the event might be missing the email field
                     logger.info("No initiator email provided - deleting application {}", id);
-                    applicationRepository.deleteById(id);
+                    deleteApplication(id);
                     logger.info("Successfully deleted application with no initiator email - id: {}", id);
                 }
                 
@@ -191,6 +238,16 @@ public class EventListeners {
             logger.error("Failed to process application event - payload: {}", payload, e);
         }
     }
-}
 
+    private void deleteApplication(UUID id) {
+        transactionTemplate.executeWithoutResult(status -> applicationRepository.findById(id).ifPresent(existing -> {
+            applicationRepository.delete(existing);
+            statsProjection.applicationRemoved(existing.getRaceId(), existing.getUserId());
+        }));
+        inMemoryReadModel.ifPresent(m -> m.removeApplication(id));
+        cacheInvalidationPublisher.publish(Application.class, id);
+    }
 
+    // A committed race update, applied to the in-memory model and other replicas' caches afterwards
+    private record RaceChange(String oldName, String oldDistance, String name, String distance) {}
+}
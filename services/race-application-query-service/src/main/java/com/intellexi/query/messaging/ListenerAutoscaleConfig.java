@@ -0,0 +1,38 @@
+package com.intellexi.query.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hands the event listeners' containers to {@link ListenerAutoscaler}. They start at their minimum consumers and
+ * prefetch, so a drained queue runs as before and nothing changes until there is a backlog.
+ */
+@Configuration
+@ConditionalOnProperty("app.rabbit.autoscale.enabled")
+@EnableConfigurationProperties(ListenerAutoscaleProperties.class)
+public class ListenerAutoscaleConfig {
+    @Bean
+    ListenerAutoscaler listenerAutoscaler(RabbitListenerEndpointRegistry registry, AmqpAdmin amqpAdmin, ListenerAutoscaleProperties properties,
+                                          ApplicationPartitions applicationPartitions, MeterRegistry meterRegistry) {
+        return new ListenerAutoscaler(registry, amqpAdmin, properties, limits(properties, applicationPartitions), meterRegistry);
+    }
+
+    // Every application partition gets the applications limits
+    private static Map<String, ListenerAutoscaleProperties.Limits> limits(ListenerAutoscaleProperties properties,
+                                                                        ApplicationPartitions applicationPartitions) {
+        Map<String, ListenerAutoscaleProperties.Limits> limits = new LinkedHashMap<>();
+        limits.put(EventListeners.RACES, properties.races());
+        for (int partition = 0; partition < applicationPartitions.count(); partition++) {
+            limits.put(applicationPartitions.listenerId(partition), properties.applications());
+        }
+        return limits;
+    }
+}
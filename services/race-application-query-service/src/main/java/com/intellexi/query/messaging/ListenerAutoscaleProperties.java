@@ -0,0 +1,31 @@
+package com.intellexi.query.messaging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param enabled           adjust the event listeners' consumers and prefetch to the backlog; off means Boot's fixed settings
+ * @param interval          how often queue depth and latencies are sampled, and at most one step taken per listener
+ * @param scaleUpDepth      ready messages above which a listener steps up
+ * @param scaleDownDepth    ready messages below which a listener steps back down
+ * @param latencyTolerance  a listener with extra consumers backs off once its mean time per message passes this multiple
+ *                          of the best it has been managing: the database is slowing down, not keeping up
+ * @param maxConnectionWait mean wait for a pooled connection, across all pools, above which every listener backs off
+ * @param backOffHold       how long a listener that backed off waits before stepping up again
+ * @param races             query.races
+ * @param applications      each partition of query.applications, see {@link ApplicationPartitions}
+ */
+@ConfigurationProperties("app.rabbit.autoscale")
+public record ListenerAutoscaleProperties(boolean enabled, Duration interval, int scaleUpDepth, int scaleDownDepth,
+                                          double latencyTolerance, Duration maxConnectionWait, Duration backOffHold,
+                                          Limits races, Limits applications) {
+    /**
+     * @param ordered      keep one consumer with minPrefetch, so events are applied in the order they were published
+     * @param minConsumers consumers when the queue is drained
+     * @param maxConsumers consumers while it holds a backlog
+     * @param minPrefetch  unacknowledged messages per consumer at minConsumers
+     * @param maxPrefetch  cap for consumers added on a backlog, each of which gets twice the prefetch of the one before
+     */
+    public record Limits(boolean ordered, int minConsumers, int maxConsumers, int minPrefetch, int maxPrefetch) {}
+}
@@ -0,0 +1,277 @@
+package com.intellexi.query.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps the event listeners' consumers with their backlog, one step per listener per interval. A listener whose queue
+ * holds more than scaleUpDepth ready messages gets another consumer, with twice the prefetch of the last one added, up
+ * to its limits; below scaleDownDepth it gives one back. Extra consumers only help while the database keeps up, so a
+ * listener backs off a step, and holds for backOffHold, when the interval after a step up processed no more than 10%
+ * more messages than the one before it, when its mean time per message (its spring.rabbit.listener timer) passes
+ * latencyTolerance times the best it has been managing, or when the mean wait for a pooled connection
+ * (hikaricp.connections.acquire) passes maxConnectionWait: the listeners take whatever connections the HTTP
+ * bulkheads leave free, so a waiting pool means reads are waiting too.
+ *
+ * Listeners start at their minimum consumers and prefetch, set just before the registry starts their containers
+ * (hence a lifecycle rather than a container customizer, which Boot applies only when it is the only one), and are
+ * sampled from then until the autoscaler stops. Ordered listeners are left at one consumer. RabbitMQ applies a prefetch to consumers as they start, so a new
+ * prefetch reaches only the consumers added after it; replacing running consumers would redeliver what they hold.
+ *
+ * Published as listener.consumers, listener.prefetch (the newest consumer's) and listener.queue.depth (-1 before
+ * the first sample), and listener.autoscale.decisions by decision (up, down, back-off), all tagged with the listener id.
+ */
+public class ListenerAutoscaler implements SmartLifecycle, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ListenerAutoscaler.class);
+    // Throughput a step up has to add to be kept
+    private static final double MIN_GAIN = 1.1;
+
+    private final RabbitListenerEndpointRegistry registry;
+    private final AmqpAdmin amqpAdmin;
+    private final MeterRegistry meterRegistry;
+    private final int scaleUpDepth;
+    private final int scaleDownDepth;
+    private final double latencyTolerance;
+    private final double maxConnectionWaitMillis;
+    private final long backOffHoldNanos;
+    private final List<Listener> listeners = new ArrayList<>();
+    private final long intervalMillis;
+    private final TimerSample connectionWait = new TimerSample();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public ListenerAutoscaler(RabbitListenerEndpointRegistry registry, AmqpAdmin amqpAdmin, ListenerAutoscaleProperties properties,
+                              Map<String, ListenerAutoscaleProperties.Limits> limits, MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.amqpAdmin = amqpAdmin;
+        this.meterRegistry = meterRegistry;
+        this.scaleUpDepth = properties.scaleUpDepth();
+        this.scaleDownDepth = properties.scaleDownDepth();
+        this.latencyTolerance = properties.latencyTolerance();
+        this.maxConnectionWaitMillis = properties.maxConnectionWait().toNanos() / 1e6;
+        this.backOffHoldNanos = properties.backOffHold().toNanos();
+        this.intervalMillis = properties.interval().toMillis();
+        limits.forEach((id, listenerLimits) -> listeners.add(new Listener(id, listenerLimits, meterRegistry)));
+    }
+
+    @Override
+    public synchronized void start() {
+        for (Listener listener : listeners) {
+            if (registry.getListenerContainer(listener.id) instanceof SimpleMessageListenerContainer container) {
+                container.setConcurrentConsumers(listener.consumers);
+                container.setPrefetchCount(listener.prefetch);
+            }
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "listener-autoscaler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Before the registry, which starts the containers in the last phase
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1;
+    }
+
+    // Ordered listeners keep one consumer, so their messages are handled in order
+    private static int initialConsumers(ListenerAutoscaleProperties.Limits limits) {
+        return limits.ordered() ? 1 : Math.max(1, limits.minConsumers());
+    }
+
+    void check() {
+        double waitMillis = connectionWait.meanMillis(meterRegistry.find("hikaricp.connections.acquire").timers());
+        for (Listener listener : listeners) {
+            try {
+                adjust(listener, waitMillis);
+            } catch (RuntimeException e) {
+                logger.warn("Listener autoscale check failed - listener: {}", listener.id, e);
+            }
+        }
+    }
+
+    private void adjust(Listener listener, double waitMillis) {
+        if (!(registry.getListenerContainer(listener.id) instanceof SimpleMessageListenerContainer container) || !container.isRunning()) {
+            return;
+        }
+        Properties queue = amqpAdmin.getQueueProperties(container.getQueueNames()[0]);
+        long depth = queue == null ? -1 : ((Number) queue.get(RabbitAdmin.QUEUE_MESSAGE_COUNT)).longValue();
+        listener.depth = depth;
+        ListenerAutoscaleProperties.Limits limits = listener.limits;
+        if (limits.ordered()) {
+            return;
+        }
+        double processingMillis = listener.processing.meanMillis(
+                meterRegistry.find("spring.rabbit.listener").tag("spring.rabbit.listener.id", listener.id).timers());
+        long processed = listener.processing.lastCount();
+        long processedBeforeStep = listener.processedBeforeStep;
+        listener.processedBeforeStep = -1;
+
+        int initial = initialConsumers(limits);
+        if (processingMillis > 0) {
+            // Falls at once and rises slowly, so a cold start does not set it; faster with more consumers counts too
+            double baseline = listener.baselineMillis;
+            listener.baselineMillis = Double.isNaN(baseline) ? processingMillis
+                    : Math.min(processingMillis, listener.consumers == initial ? 0.8 * baseline + 0.2 * processingMillis : baseline);
+        }
+        long now = System.nanoTime();
+        int consumers;
+        Counter decision;
+        String reason;
+        if (processedBeforeStep >= 0 && processed < MIN_GAIN * processedBeforeStep) {
+            consumers = listener.consumers - 1;
+            decision = listener.backOff;
+            reason = "no throughput gain";
+            listener.holdUntil = now + backOffHoldNanos;
+        } else if (listener.consumers > initial && processingMillis > latencyTolerance * listener.baselineMillis) {
+            consumers = listener.consumers - 1;
+            decision = listener.backOff;
+            reason = "processing time";
+            listener.holdUntil = now + backOffHoldNanos;
+        } else if (listener.consumers > initial && waitMillis > maxConnectionWaitMillis) {
+            consumers = listener.consumers - 1;
+            decision = listener.backOff;
+            reason = "connection wait";
+            listener.holdUntil = now + backOffHoldNanos;
+        } else if (depth > scaleUpDepth && listener.consumers < limits.maxConsumers()
+                && !Double.isNaN(listener.baselineMillis) && waitMillis <= maxConnectionWaitMillis && now - listener.holdUntil >= 0) {
+            consumers = listener.consumers + 1;
+            decision = listener.up;
+            reason = "backlog";
+            listener.processedBeforeStep = processed;
+        } else if (depth >= 0 && depth < scaleDownDepth && listener.consumers > initial) {
+            consumers = listener.consumers - 1;
+            decision = listener.down;
+            reason = "drained";
+        } else {
+            return;
+        }
+        // Each consumer added on a backlog gets twice the prefetch of the one before it
+        int prefetch = (int) Math.min(limits.maxPrefetch(), (long) limits.minPrefetch() << Math.min(30, consumers - initial));
+
+        decision.increment();
+        logger.info("Listener autoscale - listener: {}, reason: {}, consumers: {} -> {}, prefetch: {}, depth: {}, processed: {}, "
+                        + "processing: {} ms (baseline {} ms), connection wait: {} ms", listener.id, reason, listener.consumers, consumers,
+                prefetch, depth, processed, String.format("%.1f", processingMillis), String.format("%.1f", listener.baselineMillis),
+                String.format("%.1f", waitMillis));
+        container.setPrefetchCount(prefetch);
+        container.setConcurrentConsumers(consumers);
+        listener.consumers = consumers;
+        listener.prefetch = prefetch;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private static final class Listener {
+        final String id;
+        final ListenerAutoscaleProperties.Limits limits;
+        final TimerSample processing = new TimerSample();
+        final Counter up;
+        final Counter down;
+        final Counter backOff;
+        volatile int consumers;
+        volatile int prefetch;
+        volatile long depth = -1;
+        // Mean time per message the database manages when it keeps up; unknown until a message has been processed
+        double baselineMillis = Double.NaN;
+        long holdUntil = System.nanoTime();
+        // Messages processed in the interval before the last step up, until the interval after it has been judged
+        long processedBeforeStep = -1;
+
+        Listener(String id, ListenerAutoscaleProperties.Limits limits, MeterRegistry meterRegistry) {
+            this.id = id;
+            this.limits = limits;
+            this.consumers = initialConsumers(limits);
+            this.prefetch = limits.minPrefetch();
+            this.up = decisions(meterRegistry, id, "up");
+            this.down = decisions(meterRegistry, id, "down");
+            this.backOff = decisions(meterRegistry, id, "back-off");
+            Gauge.builder("listener.consumers", this, l -> l.consumers)
+                    .description("Consumers the listener autoscaler has set for the listener")
+                    .tag("listener", id)
+                    .register(meterRegistry);
+            Gauge.builder("listener.prefetch", this, l -> l.prefetch)
+                    .description("Prefetch of the listener's most recently started consumer")
+                    .tag("listener", id)
+                    .register(meterRegistry);
+            Gauge.builder("listener.queue.depth", this, l -> l.depth)
+                    .description("Ready messages in the listener's queue, as of the last sample")
+                    .tag("listener", id)
+                    .register(meterRegistry);
+        }
+
+        private static Counter decisions(MeterRegistry meterRegistry, String id, String decision) {
+            return Counter.builder("listener.autoscale.decisions")
+                    .description("Steps the listener autoscaler has taken, by decision")
+                    .tag("listener", id)
+                    .tag("decision", decision)
+                    .register(meterRegistry);
+        }
+    }
+
+    // Turns the cumulative count and total time of a set of timers into the mean over the last interval
+    private static final class TimerSample {
+        private long count;
+        private long lastCount;
+        private double totalMillis;
+
+        double meanMillis(Collection<Timer> timers) {
+            long newCount = 0;
+            double newTotalMillis = 0;
+            for (Timer timer : timers) {
+                newCount += timer.count();
+                newTotalMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+            }
+            long deltaCount = newCount - count;
+            double deltaMillis = newTotalMillis - totalMillis;
+            count = newCount;
+            lastCount = deltaCount;
+            totalMillis = newTotalMillis;
+            return deltaCount > 0 ? deltaMillis / deltaCount : 0;
+        }
+
+        // Timings counted in the last interval
+        long lastCount() {
+            return lastCount;
+        }
+    }
+}
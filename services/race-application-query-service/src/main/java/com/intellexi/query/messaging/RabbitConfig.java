@@ -1,6 +1,8 @@
 package com.intellexi.query.messaging;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,18 +22,45 @@ public class RabbitConfig {
     }
 
     @Bean
-    Queue applicationQueue(@Value("${app.rabbit.queues.applications}") String name) {
-        return QueueBuilder.durable(name).build();
+    Binding raceBinding(@Qualifier("raceQueue") Queue raceQueue, TopicExchange eventsExchange, @Value("${app.rabbit.routing.race}") String routingKey) {
+        return BindingBuilder.bind(raceQueue).to(eventsExchange).with(routingKey);
     }
 
     @Bean
-    Binding raceBinding(@Qualifier("raceQueue") Queue raceQueue, TopicExchange eventsExchange, @Value("${app.rabbit.routing.race}") String routingKey) {
-        return BindingBuilder.bind(raceQueue).to(eventsExchange).with(routingKey);
+    ApplicationPartitions applicationPartitions(@Value("${app.rabbit.exchange}") String exchange, @Value("${app.rabbit.queues.applications}") String queue,
+                                                @Value("${app.rabbit.routing.application}") String routingKey,
+                                                @Value("${app.rabbit.queues.application-partitions}") int partitions,
+                                                ConnectionFactory connectionFactory, AmqpAdmin amqpAdmin) {
+        ApplicationPartitions applicationPartitions = new ApplicationPartitions(exchange, queue, routingKey, partitions, amqpAdmin);
+        // Added after RabbitAdmin's listener, so it unbinds once the current bindings are declared
+        connectionFactory.addConnectionListener(applicationPartitions);
+        return applicationPartitions;
+    }
+
+    @Bean
+    Declarables applicationPartitionDeclarables(ApplicationPartitions applicationPartitions) {
+        return applicationPartitions.declarables();
+    }
+
+    @Bean
+    RabbitListenerConfigurer applicationPartitionListeners(ApplicationPartitions applicationPartitions, EventListeners eventListeners) {
+        return registrar -> applicationPartitions.registerListeners(registrar, eventListeners);
+    }
+
+    @Bean
+    FanoutExchange cacheInvalidationExchange(@Value("${app.rabbit.invalidation.exchange}") String name) {
+        return new FanoutExchange(name, true, false);
+    }
+
+    @Bean
+    Queue cacheInvalidationQueue() {
+        // Server-named, exclusive and auto-delete: one queue per running replica
+        return new AnonymousQueue();
     }
 
     @Bean
-    Binding applicationBinding(@Qualifier("applicationQueue") Queue applicationQueue, TopicExchange eventsExchange, @Value("${app.rabbit.routing.application}") String routingKey) {
-        return BindingBuilder.bind(applicationQueue).to(eventsExchange).with(routingKey);
+    Binding cacheInvalidationBinding(@Qualifier("cacheInvalidationQueue") Queue cacheInvalidationQueue, FanoutExchange cacheInvalidationExchange) {
+        return BindingBuilder.bind(cacheInvalidationQueue).to(cacheInvalidationExchange);
     }
 
     @Bean
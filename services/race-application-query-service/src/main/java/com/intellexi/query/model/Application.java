@@ -9,6 +9,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.FetchType;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
@@ -28,6 +29,9 @@ public class Application {
     @JsonIgnore
     private User user;
 
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Instant createdAt;
+
     public Application() {}
     
     public Application(UUID id, UUID raceId, UUID userId) {
@@ -47,6 +51,8 @@ public class Application {
     
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
+
+    public Instant getCreatedAt() { return createdAt; }
 }
 
 
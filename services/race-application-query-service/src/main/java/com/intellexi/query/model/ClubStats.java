@@ -0,0 +1,20 @@
+package com.intellexi.query.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+// Counter row; written only through native upserts in ClubStatsRepository
+@Entity
+@Table(name = "club_stats")
+@Immutable
+public class ClubStats {
+    @Id
+    private String club;
+    private long applications;
+
+    public ClubStats() {}
+    public String getClub() { return club; }
+    public long getApplications() { return applications; }
+}
@@ -0,0 +1,20 @@
+package com.intellexi.query.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+// Counter row; written only through native upserts in DistanceStatsRepository
+@Entity
+@Table(name = "distance_stats")
+@Immutable
+public class DistanceStats {
+    @Id
+    private String distance;
+    private long applications;
+
+    public DistanceStats() {}
+    public String getDistance() { return distance; }
+    public long getApplications() { return applications; }
+}
@@ -0,0 +1,24 @@
+package com.intellexi.query.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.util.UUID;
+
+// Counter row; written only through native upserts in RaceStatsRepository
+@Entity
+@Table(name = "race_stats")
+@Immutable
+public class RaceStats {
+    @Id
+    @Column(name = "race_id")
+    private UUID raceId;
+    private long applications;
+
+    public RaceStats() {}
+    public UUID getRaceId() { return raceId; }
+    public long getApplications() { return applications; }
+}
@@ -1,13 +1,56 @@
 package com.intellexi.query.repo;
 
+import com.intellexi.query.dto.ApplicationWithUserDto;
 import com.intellexi.query.model.Application;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface ApplicationRepository extends JpaRepository<Application, UUID> {
     List<Application> findByUserId(UUID userId);
-}
 
+    // Multi-get: one IN query, joined to users so ownership can be checked on the returned email
+    @Query("""
+            SELECT new com.intellexi.query.dto.ApplicationWithUserDto(a.id, a.raceId, a.userId, u.firstName, u.lastName, u.email, u.club)
+            FROM Application a JOIN a.user u
+            WHERE a.id IN :ids
+            """)
+    List<ApplicationWithUserDto> findWithUserByIdIn(Collection<UUID> ids);
+
+    // Race rosters: filtered on idx_applications_race_created, joined to users, keyset-paged on (sort key, id)
+
+    @Query("""
+            SELECT new com.intellexi.query.dto.ApplicationWithUserDto(a.id, a.raceId, a.userId, u.firstName, u.lastName, u.email, u.club, a.createdAt)
+            FROM Application a JOIN a.user u
+            WHERE a.raceId = :raceId
+              AND (:club IS NULL OR u.club = :club)
+              AND (:afterId IS NULL OR u.lastName > :afterKey OR (u.lastName = :afterKey AND a.id > :afterId))
+            ORDER BY u.lastName, a.id
+            """)
+    List<ApplicationWithUserDto> findRosterByLastName(UUID raceId, String club, String afterKey, UUID afterId, Limit limit);
 
+    @Query("""
+            SELECT new com.intellexi.query.dto.ApplicationWithUserDto(a.id, a.raceId, a.userId, u.firstName, u.lastName, u.email, u.club, a.createdAt)
+            FROM Application a JOIN a.user u
+            WHERE a.raceId = :raceId
+              AND (:club IS NULL OR u.club = :club)
+              AND (:afterId IS NULL OR COALESCE(u.club, '') > :afterKey OR (COALESCE(u.club, '') = :afterKey AND a.id > :afterId))
+            ORDER BY COALESCE(u.club, ''), a.id
+            """)
+    List<ApplicationWithUserDto> findRosterByClub(UUID raceId, String club, String afterKey, UUID afterId, Limit limit);
+
+    @Query("""
+            SELECT new com.intellexi.query.dto.ApplicationWithUserDto(a.id, a.raceId, a.userId, u.firstName, u.lastName, u.email, u.club, a.createdAt)
+            FROM Application a JOIN a.user u
+            WHERE a.raceId = :raceId
+              AND (:club IS NULL OR u.club = :club)
+              AND (:afterId IS NULL OR a.createdAt > :afterKey OR (a.createdAt = :afterKey AND a.id > :afterId))
+            ORDER BY a.createdAt, a.id
+            """)
+    List<ApplicationWithUserDto> findRosterByCreatedAt(UUID raceId, String club, Instant afterKey, UUID afterId, Limit limit);
+}
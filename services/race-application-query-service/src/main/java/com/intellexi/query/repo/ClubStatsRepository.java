@@ -0,0 +1,57 @@
+package com.intellexi.query.repo;
+
+import com.intellexi.query.model.ClubStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.UUID;
+
+// Native statements declare their table as query space; without it Hibernate evicts every second-level cache region
+public interface ClubStatsRepository extends JpaRepository<ClubStats, String> {
+    // No-op for applicants without a club
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "club_stats"))
+    @Query(value = """
+            INSERT INTO club_stats (club, applications)
+            SELECT u.club, :delta FROM users u WHERE u.id = :userId AND u.club IS NOT NULL
+            ON CONFLICT (club) DO UPDATE SET applications = club_stats.applications + EXCLUDED.applications
+            """, nativeQuery = true)
+    void incrementForUser(UUID userId, long delta);
+
+    // Must run before the race row is deleted, while its applications are still there to count
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "club_stats"))
+    @Query(value = """
+            INSERT INTO club_stats (club, applications)
+            SELECT u.club, -COUNT(*) FROM applications a JOIN users u ON u.id = a.user_id
+            WHERE a.race_id = :raceId AND u.club IS NOT NULL GROUP BY u.club
+            ON CONFLICT (club) DO UPDATE SET applications = club_stats.applications + EXCLUDED.applications
+            """, nativeQuery = true)
+    void removeRaceEntries(UUID raceId);
+
+    @Query(value = """
+            SELECT COUNT(*)
+            FROM (SELECT u.club, COUNT(*) AS applications
+                  FROM applications a JOIN users u ON u.id = a.user_id WHERE u.club IS NOT NULL GROUP BY u.club) c
+            FULL JOIN club_stats s ON s.club = c.club
+            WHERE COALESCE(c.applications, 0) <> COALESCE(s.applications, 0)
+            """, nativeQuery = true)
+    long countMismatches();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "club_stats"))
+    @Query(value = """
+            INSERT INTO club_stats (club, applications)
+            SELECT COALESCE(c.club, s.club), COALESCE(c.applications, 0)
+            FROM (SELECT u.club, COUNT(*) AS applications
+                  FROM applications a JOIN users u ON u.id = a.user_id WHERE u.club IS NOT NULL GROUP BY u.club) c
+            FULL JOIN club_stats s ON s.club = c.club
+            ON CONFLICT (club) DO UPDATE SET applications = EXCLUDED.applications
+            WHERE club_stats.applications <> EXCLUDED.applications
+            """, nativeQuery = true)
+    int repair();
+}
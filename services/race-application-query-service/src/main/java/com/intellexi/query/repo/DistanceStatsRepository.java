@@ -0,0 +1,60 @@
+package com.intellexi.query.repo;
+
+import com.intellexi.query.model.DistanceStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.UUID;
+
+// Native statements declare their table as query space; without it Hibernate evicts every second-level cache region
+public interface DistanceStatsRepository extends JpaRepository<DistanceStats, String> {
+    @Query("SELECT d FROM DistanceStats d ORDER BY d.distance")
+    List<DistanceStats> findAllOrderedByDistance();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "distance_stats"))
+    @Query(value = """
+            INSERT INTO distance_stats (distance, applications)
+            SELECT r.distance, :delta FROM races r WHERE r.id = :raceId
+            ON CONFLICT (distance) DO UPDATE SET applications = distance_stats.applications + EXCLUDED.applications
+            """, nativeQuery = true)
+    void incrementForRace(UUID raceId, long delta);
+
+    // Adds (sign = 1) or removes (sign = -1) all of a race's applications under the given distance;
+    // used when a race changes distance or is deleted
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "distance_stats"))
+    @Query(value = """
+            INSERT INTO distance_stats (distance, applications)
+            SELECT :distance, :sign * COUNT(*) FROM applications a WHERE a.race_id = :raceId
+            ON CONFLICT (distance) DO UPDATE SET applications = distance_stats.applications + EXCLUDED.applications
+            """, nativeQuery = true)
+    void moveRaceEntries(String distance, UUID raceId, int sign);
+
+    @Query(value = """
+            SELECT COUNT(*)
+            FROM (SELECT r.distance, COUNT(*) AS applications
+                  FROM applications a JOIN races r ON r.id = a.race_id GROUP BY r.distance) c
+            FULL JOIN distance_stats s ON s.distance = c.distance
+            WHERE COALESCE(c.applications, 0) <> COALESCE(s.applications, 0)
+            """, nativeQuery = true)
+    long countMismatches();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "distance_stats"))
+    @Query(value = """
+            INSERT INTO distance_stats (distance, applications)
+            SELECT COALESCE(c.distance, s.distance), COALESCE(c.applications, 0)
+            FROM (SELECT r.distance, COUNT(*) AS applications
+                  FROM applications a JOIN races r ON r.id = a.race_id GROUP BY r.distance) c
+            FULL JOIN distance_stats s ON s.distance = c.distance
+            ON CONFLICT (distance) DO UPDATE SET applications = EXCLUDED.applications
+            WHERE distance_stats.applications <> EXCLUDED.applications
+            """, nativeQuery = true)
+    int repair();
+}
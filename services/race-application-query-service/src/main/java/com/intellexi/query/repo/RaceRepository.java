@@ -1,5 +1,6 @@
 package com.intellexi.query.repo;
 
+import com.intellexi.query.dto.RaceSearchHit;
 import com.intellexi.query.model.Race;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +11,16 @@ import java.util.UUID;
 public interface RaceRepository extends JpaRepository<Race, UUID> {
     @Query("SELECT r FROM Race r ORDER BY r.name ASC")
     List<Race> findAllOrderedByName();
+
+    // Trigram search on idx_races_name_trgm: substring hits first, then by similarity
+    @Query(value = """
+            SELECT r.id AS "id", r.name AS "name", r.distance AS "distance", similarity(r.name, :q) AS "score"
+            FROM races r
+            WHERE r.name % :q OR r.name ILIKE :pattern
+            ORDER BY r.name ILIKE :pattern DESC, 4 DESC, r.name
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<RaceSearchHit> search(String q, String pattern, int limit);
 }
 
 
@@ -0,0 +1,41 @@
+package com.intellexi.query.repo;
+
+import com.intellexi.query.model.RaceStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.UUID;
+
+// Native statements declare their table as query space; without it Hibernate evicts every second-level cache region
+public interface RaceStatsRepository extends JpaRepository<RaceStats, UUID> {
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "race_stats"))
+    @Query(value = """
+            INSERT INTO race_stats (race_id, applications) VALUES (:raceId, :delta)
+            ON CONFLICT (race_id) DO UPDATE SET applications = race_stats.applications + EXCLUDED.applications
+            """, nativeQuery = true)
+    void increment(UUID raceId, long delta);
+
+    @Query(value = """
+            SELECT COUNT(*)
+            FROM (SELECT r.id AS race_id, COUNT(a.id) AS applications
+                  FROM races r LEFT JOIN applications a ON a.race_id = r.id GROUP BY r.id) c
+            FULL JOIN race_stats s ON s.race_id = c.race_id
+            WHERE COALESCE(c.applications, 0) <> COALESCE(s.applications, 0)
+            """, nativeQuery = true)
+    long countMismatches();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "race_stats"))
+    @Query(value = """
+            INSERT INTO race_stats (race_id, applications)
+            SELECT r.id, COUNT(a.id) FROM races r LEFT JOIN applications a ON a.race_id = r.id GROUP BY r.id
+            ON CONFLICT (race_id) DO UPDATE SET applications = EXCLUDED.applications
+            WHERE race_stats.applications <> EXCLUDED.applications
+            """, nativeQuery = true)
+    int repair();
+}
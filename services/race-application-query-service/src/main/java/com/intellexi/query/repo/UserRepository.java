@@ -1,14 +1,20 @@
 package com.intellexi.query.repo;
 
+import com.intellexi.query.dto.ApplicantSearchHit;
 import com.intellexi.query.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
+    // Resolved through the query cache: the result id list is cached and the entity comes from the users region
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
     
     List<User> findByRole(User.Role role);
@@ -17,4 +23,33 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> findAllOrderedByName();
     
     boolean existsByEmail(String email);
+
+    // Trigram search in two passes, each predicate served by its own GIN index and combined with a BitmapOr.
+    // Substring hits are selective and rank first; fuzzy matching only runs when they don't fill the page.
+    @Query(value = """
+            SELECT u.id AS "id", u.first_name AS "firstName", u.last_name AS "lastName", u.email AS "email", u.club AS "club",
+                   GREATEST(similarity(u.first_name, :q), similarity(u.last_name, :q),
+                            similarity(u.email, :q), COALESCE(similarity(u.club, :q), 0)) AS "score"
+            FROM users u
+            WHERE (u.first_name ILIKE :pattern OR u.last_name ILIKE :pattern
+                   OR u.email ILIKE :pattern OR u.club ILIKE :pattern)
+              AND u.role = 'Applicant'
+            ORDER BY 6 DESC, u.last_name, u.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ApplicantSearchHit> searchApplicantsContaining(String q, String pattern, int limit);
+
+    // Emails are left out here; fuzzy matches on them mostly pull in unrelated rows
+    @Query(value = """
+            SELECT u.id AS "id", u.first_name AS "firstName", u.last_name AS "lastName", u.email AS "email", u.club AS "club",
+                   GREATEST(similarity(u.first_name, :q), similarity(u.last_name, :q), COALESCE(similarity(u.club, :q), 0)) AS "score"
+            FROM users u
+            WHERE (u.first_name % :q OR u.last_name % :q OR u.club % :q)
+              AND NOT (u.first_name ILIKE :pattern OR u.last_name ILIKE :pattern
+                       OR u.email ILIKE :pattern OR COALESCE(u.club ILIKE :pattern, false))
+              AND u.role = 'Applicant'
+            ORDER BY 6 DESC, u.last_name, u.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ApplicantSearchHit> searchApplicantsSimilarTo(String q, String pattern, int limit);
 }
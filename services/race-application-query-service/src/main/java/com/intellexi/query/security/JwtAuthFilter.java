@@ -67,6 +67,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+
+    // Async handlers, such as /graphql on virtual threads, are dispatched a second time to write the response,
+    // and that dispatch is authorized again
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
 }
 
 
@@ -20,6 +20,8 @@ public class SecurityConfig {
         http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
         http.authorizeHttpRequests(auth -> auth
             .requestMatchers("/actuator/health", "/auth/token").permitAll()
+            // Recent traces cover every user's requests
+            .requestMatchers("/actuator/traces/**").hasRole("Administrator")
             .anyRequest().authenticated()
         );
         return http.build();
@@ -0,0 +1,124 @@
+package com.intellexi.query.sql;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes every JDBC statement through {@link SqlStatementCounter} and opens a counting scope around
+ * each HTTP request and each AMQP message. An async request keeps one scope from its request dispatch to the end of
+ * its async dispatch, and the executor threads it runs on meanwhile count against it.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlStatementProperties.class)
+public class SqlStatementConfig implements WebMvcConfigurer {
+    private static final String SCOPE_ATTRIBUTE = SqlStatementCounter.Scope.class.getName();
+    private final ObjectProvider<SqlStatementCounter> counter;
+
+    public SqlStatementConfig(ObjectProvider<SqlStatementCounter> counter) {
+        this.counter = counter;
+    }
+
+    @Bean
+    SqlStatementCounter sqlStatementCounter(MeterRegistry meterRegistry, SqlStatementProperties properties) {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(new SqlStatementCounter.ScopeAccessor());
+        return new SqlStatementCounter(meterRegistry, properties.strict());
+    }
+
+    @Bean
+    static BeanPostProcessor sqlStatementDataSourceProxy(ObjectProvider<SqlStatementCounter> counter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(counter.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    ContainerCustomizer<SimpleMessageListenerContainer> sqlStatementListenerScope(SqlStatementCounter counter,
+                                                                                  SqlStatementProperties properties) {
+        return container -> container.setAdviceChain((MethodInterceptor) invocation -> {
+            // ContainerDelegate.invokeListener(Channel, Object data)
+            String event = invocation.getArguments()[1] instanceof Message message ? eventType(message) : "batch";
+            SqlStatementCounter.Scope scope = counter.open(properties.eventBudgets().getOrDefault(event, 0));
+            try {
+                return invocation.proceed();
+            } finally {
+                counter.close(scope, "amqp", event);
+            }
+        });
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request,
+                                     HttpServletResponse response, Object handler) {
+                // The request dispatch opened the scope; afterCompletion on this dispatch closes it
+                if (request.getDispatcherType() == DispatcherType.ASYNC) {
+                    if (request.getAttribute(SCOPE_ATTRIBUTE) instanceof SqlStatementCounter.Scope scope) {
+                        counter.getObject().resume(scope);
+                    }
+                    return true;
+                }
+                StatementBudget budget = handler instanceof HandlerMethod method ? method.getMethodAnnotation(StatementBudget.class) : null;
+                request.setAttribute(SCOPE_ATTRIBUTE, counter.getObject().open(budget == null ? 0 : budget.value()));
+                return true;
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request,
+                                                       HttpServletResponse response, Object handler) {
+                // Called instead of afterCompletion when the handler went async; the scope stays open
+                if (request.getAttribute(SCOPE_ATTRIBUTE) instanceof SqlStatementCounter.Scope scope) {
+                    counter.getObject().suspend(scope);
+                }
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request,
+                                        HttpServletResponse response, Object handler, Exception ex) {
+                if (request.getAttribute(SCOPE_ATTRIBUTE) instanceof SqlStatementCounter.Scope scope) {
+                    request.removeAttribute(SCOPE_ATTRIBUTE);
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    counter.getObject().close(scope, "http", request.getMethod() + " " + (pattern == null ? "unmapped" : pattern));
+                }
+            }
+        });
+    }
+
+    // Jackson2JsonMessageConverter stamps the sender's class name, e.g. ...RaceEvents$RaceCreated
+    private static String eventType(Message message) {
+        Object typeId = message.getMessageProperties().getHeader("__TypeId__");
+        if (typeId == null) return "unknown";
+        String type = typeId.toString();
+        return type.substring(Math.max(type.lastIndexOf('.'), type.lastIndexOf('$')) + 1);
+    }
+}
@@ -0,0 +1,175 @@
+package com.intellexi.query.sql;
+
+import io.micrometer.context.ThreadLocalAccessor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Counts JDBC statements and their execution time per unit of work (an HTTP request or an AMQP message)
+ * on the current thread. Statements outside any scope, such as Flyway or scheduled jobs, are not counted.
+ * A scope follows its work onto the threads context propagation hands it to, e.g. GraphQL fetchers, and an async
+ * request suspends it while no thread runs it. Results are published as sql.statements and sql.statements.time, tagged with the scope kind and name.
+ */
+public class SqlStatementCounter implements QueryExecutionListener {
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementCounter.class);
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    // Per thread, as a scope's statements can run on several at once
+    private static final ThreadLocal<Long> STARTED = new ThreadLocal<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean strict;
+
+    public static final class Scope {
+        private final Scope parent;
+        private final int budget;
+        private final boolean strict;
+        private final AtomicInteger statements = new AtomicInteger();
+        private final AtomicLong nanos = new AtomicLong();
+
+        private Scope(Scope parent, int budget, boolean strict) {
+            this.parent = parent;
+            this.budget = budget;
+            this.strict = strict;
+        }
+
+        public int statements() { return statements.get(); }
+        public long nanos() { return nanos.get(); }
+        boolean exceeded() { return budget > 0 && statements.get() > budget; }
+    }
+
+    public SqlStatementCounter(MeterRegistry meterRegistry, boolean strict) {
+        this.meterRegistry = meterRegistry;
+        this.strict = strict;
+    }
+
+    /** Starts counting on this thread; a budget of 0 means unlimited. Must be paired with {@link #close}. */
+    public Scope open(int budget) {
+        Scope scope = new Scope(CURRENT.get(), budget, strict);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /** Takes the scope off this thread without ending it, e.g. when its request goes async. */
+    public void suspend(Scope scope) {
+        if (scope.parent == null) CURRENT.remove(); else CURRENT.set(scope.parent);
+    }
+
+    /** Puts a suspended scope back on this thread, e.g. for its request's async dispatch, which then closes it. */
+    public void resume(Scope scope) {
+        CURRENT.set(scope);
+    }
+
+    public void close(Scope scope, String kind, String name) {
+        suspend(scope);
+
+        DistributionSummary.builder("sql.statements")
+                .description("JDBC statements executed per HTTP request or AMQP message")
+                .tags("kind", kind, "name", name)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry)
+                .record(scope.statements());
+        Timer.builder("sql.statements.time")
+                .description("Time spent executing JDBC statements per HTTP request or AMQP message")
+                .tags("kind", kind, "name", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(scope.nanos(), TimeUnit.NANOSECONDS);
+        if (scope.exceeded()) {
+            Counter.builder("sql.statements.budget.exceeded")
+                    .tags("kind", kind, "name", name)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("Statement budget exceeded - {} '{}' ran {} statements, budget is {}", kind, name, scope.statements(), scope.budget);
+        }
+    }
+
+    /**
+     * Runs the work in its own scope and fails if it ran more than the given number of statements,
+     * whatever app.sql.strict says. Lets tests pin down how many queries a code path may issue.
+     */
+    public <T> T withinBudget(int budget, Supplier<T> work) {
+        Scope scope = new Scope(CURRENT.get(), budget, true);
+        CURRENT.set(scope);
+        T result;
+        try {
+            result = work.get();
+        } finally {
+            if (scope.parent == null) CURRENT.remove(); else CURRENT.set(scope.parent);
+        }
+        // The overrunning statement already failed, but callers such as the event listeners swallow exceptions
+        if (scope.exceeded()) {
+            throw new StatementBudgetExceededException("Ran " + scope.statements() + " statements, budget is " + budget);
+        }
+        return result;
+    }
+
+    public void withinBudget(int budget, Runnable work) {
+        withinBudget(budget, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (CURRENT.get() != null) {
+            STARTED.set(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Scope current = CURRENT.get();
+        if (current == null) return;
+        Long started = STARTED.get();
+        STARTED.remove();
+        long elapsed = started == null ? 0 : System.nanoTime() - started;
+        // Enclosing scopes see their nested scopes' statements too; a JDBC batch counts once
+        for (Scope scope = current; scope != null; scope = scope.parent) {
+            int statements = scope.statements.incrementAndGet();
+            scope.nanos.addAndGet(elapsed);
+            if (scope.strict && scope.budget > 0 && statements > scope.budget) {
+                throw new StatementBudgetExceededException("Statement budget of " + scope.budget + " exceeded by: "
+                        + (queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery()));
+            }
+        }
+    }
+
+    /** Carries the current scope wherever context propagation captures and restores thread-locals. */
+    static final class ScopeAccessor implements ThreadLocalAccessor<Scope> {
+        static final String KEY = SqlStatementCounter.class.getName();
+
+        @Override
+        public Object key() {
+            return KEY;
+        }
+
+        @Override
+        public Scope getValue() {
+            return CURRENT.get();
+        }
+
+        @Override
+        public void setValue(Scope scope) {
+            CURRENT.set(scope);
+        }
+
+        @Override
+        public void setValue() {
+            CURRENT.remove();
+        }
+    }
+}
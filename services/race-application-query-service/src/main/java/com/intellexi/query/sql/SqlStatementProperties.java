@@ -0,0 +1,16 @@
+package com.intellexi.query.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * @param strict       fail the statement that exceeds a budget instead of only logging it; meant for tests and CI
+ * @param eventBudgets statements allowed per AMQP message, keyed by event type (e.g. ApplicationCreated)
+ */
+@ConfigurationProperties("app.sql")
+public record SqlStatementProperties(boolean strict, Map<String, Integer> eventBudgets) {
+    public SqlStatementProperties {
+        eventBudgets = eventBudgets == null ? Map.of() : Map.copyOf(eventBudgets);
+    }
+}
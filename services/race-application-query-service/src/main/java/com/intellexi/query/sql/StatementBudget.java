@@ -0,0 +1,16 @@
+package com.intellexi.query.sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of JDBC statements one call of the annotated handler method may run.
+ * Overruns are logged and counted; with app.sql.strict=true the statement that crosses the budget fails.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    int value();
+}
@@ -0,0 +1,59 @@
+package com.intellexi.query.stats;
+
+import com.intellexi.query.repo.ClubStatsRepository;
+import com.intellexi.query.repo.DistanceStatsRepository;
+import com.intellexi.query.repo.RaceStatsRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Applies counter deltas for race/application changes. Every method joins the caller's transaction,
+ * so counters commit or roll back together with the change they describe.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class StatsProjection {
+    private final RaceStatsRepository raceStatsRepository;
+    private final ClubStatsRepository clubStatsRepository;
+    private final DistanceStatsRepository distanceStatsRepository;
+
+    public StatsProjection(RaceStatsRepository raceStatsRepository, ClubStatsRepository clubStatsRepository,
+                           DistanceStatsRepository distanceStatsRepository) {
+        this.raceStatsRepository = raceStatsRepository;
+        this.clubStatsRepository = clubStatsRepository;
+        this.distanceStatsRepository = distanceStatsRepository;
+    }
+
+    // The race row must already be flushed; race_stats references it
+    public void raceCreated(UUID raceId) {
+        raceStatsRepository.increment(raceId, 0);
+    }
+
+    public void raceDistanceChanged(UUID raceId, String oldDistance, String newDistance) {
+        distanceStatsRepository.moveRaceEntries(oldDistance, raceId, -1);
+        distanceStatsRepository.moveRaceEntries(newDistance, raceId, 1);
+    }
+
+    // Call before deleting the race: its applications are counted here and then removed by the cascade
+    public void raceDeleting(UUID raceId, String distance) {
+        clubStatsRepository.removeRaceEntries(raceId);
+        distanceStatsRepository.moveRaceEntries(distance, raceId, -1);
+    }
+
+    public void applicationAdded(UUID raceId, UUID userId) {
+        applyApplication(raceId, userId, 1);
+    }
+
+    public void applicationRemoved(UUID raceId, UUID userId) {
+        applyApplication(raceId, userId, -1);
+    }
+
+    private void applyApplication(UUID raceId, UUID userId, long delta) {
+        raceStatsRepository.increment(raceId, delta);
+        clubStatsRepository.incrementForUser(userId, delta);
+        distanceStatsRepository.incrementForRace(raceId, delta);
+    }
+}
@@ -0,0 +1,97 @@
+package com.intellexi.query.stats;
+
+import com.intellexi.query.repo.ClubStatsRepository;
+import com.intellexi.query.repo.DistanceStatsRepository;
+import com.intellexi.query.repo.RaceStatsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Compares the counter tables with a full recount of applications and reports rows that disagree
+ * as the stats.reconciliation.mismatches gauge. With app.stats.reconcile.repair=true the counters
+ * are rewritten from the recount.
+ */
+@Component
+public class StatsReconciliationJob {
+    private static final Logger logger = LoggerFactory.getLogger(StatsReconciliationJob.class);
+    private final RaceStatsRepository raceStatsRepository;
+    private final ClubStatsRepository clubStatsRepository;
+    private final DistanceStatsRepository distanceStatsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean repair;
+    private final Map<String, AtomicLong> mismatches = new LinkedHashMap<>();
+
+    public StatsReconciliationJob(RaceStatsRepository raceStatsRepository, ClubStatsRepository clubStatsRepository,
+                                  DistanceStatsRepository distanceStatsRepository, JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                  @Value("${app.stats.reconcile.repair}") boolean repair) {
+        this.raceStatsRepository = raceStatsRepository;
+        this.clubStatsRepository = clubStatsRepository;
+        this.distanceStatsRepository = distanceStatsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.repair = repair;
+        for (String table : new String[] {"race_stats", "club_stats", "distance_stats"}) {
+            AtomicLong value = new AtomicLong();
+            mismatches.put(table, value);
+            Gauge.builder("stats.reconciliation.mismatches", value, AtomicLong::get)
+                    .tag("table", table)
+                    .description("Counter rows that disagreed with a full recount in the last reconciliation")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.stats.reconcile.initial-delay}", fixedDelayString = "${app.stats.reconcile.interval}")
+    public void reconcile() {
+        long started = System.currentTimeMillis();
+        // Each check is a single statement, so counters and recount come from the same snapshot
+        long races = check("race_stats", raceStatsRepository::countMismatches);
+        long clubs = check("club_stats", clubStatsRepository::countMismatches);
+        long distances = check("distance_stats", distanceStatsRepository::countMismatches);
+        long total = races + clubs + distances;
+
+        if (total == 0) {
+            logger.info("Stats reconciliation passed in {} ms", System.currentTimeMillis() - started);
+            return;
+        }
+        logger.warn("Stats reconciliation found mismatched counters - race_stats: {}, club_stats: {}, distance_stats: {}",
+                races, clubs, distances);
+        if (repair) {
+            repairCounters();
+        }
+    }
+
+    private long check(String table, LongSupplier countMismatches) {
+        long count = countMismatches.getAsLong();
+        mismatches.get(table).set(count);
+        return count;
+    }
+
+    private void repairCounters() {
+        Map<String, Integer> repaired = transactionTemplate.execute(status -> {
+            // Holds off listener upserts so no delta lands between the recount and the overwrite
+            jdbcTemplate.execute("LOCK TABLE race_stats, club_stats, distance_stats IN SHARE ROW EXCLUSIVE MODE");
+            Map<String, Integer> rows = new LinkedHashMap<>();
+            rows.put("race_stats", raceStatsRepository.repair());
+            rows.put("club_stats", clubStatsRepository.repair());
+            rows.put("distance_stats", distanceStatsRepository.repair());
+            return rows;
+        });
+        mismatches.values().forEach(value -> value.set(0));
+        logger.warn("Stats counters repaired from recount - rows rewritten: {}", repaired);
+    }
+}
@@ -0,0 +1,61 @@
+package com.intellexi.query.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.function.Supplier;
+
+/**
+ * Spring Boot registers every SpanExporter bean with the OpenTelemetry tracer, so finished spans land in
+ * {@link RecentSpans}. HTTP server spans come from Boot and the AMQP receive span from the observation-enabled
+ * listener containers; this adds a child span around every Spring Data repository call.
+ */
+@Configuration
+public class TracingConfig {
+    @Bean
+    RecentSpans recentSpans(@Value("${app.tracing.buffer-size}") int bufferSize) {
+        return new RecentSpans(bufferSize);
+    }
+
+    @Bean
+    TracesEndpoint tracesEndpoint(RecentSpans recentSpans) {
+        return new TracesEndpoint(recentSpans);
+    }
+
+    @Bean
+    static BeanPostProcessor repositoryObservation(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    Supplier<ObservationRegistry> registry = SingletonSupplier.of(
+                            () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(observe(
+                                    information.getRepositoryInterface().getSimpleName(), registry))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Exported as e.g. "application-repository.save-and-flush", tagged with repository and method
+    private static MethodInterceptor observe(String repository, Supplier<ObservationRegistry> registry) {
+        return invocation -> {
+            String method = invocation.getMethod().getName();
+            return Observation.createNotStarted("repository.invocation", registry.get())
+                    .contextualName(repository + "." + method)
+                    .lowCardinalityKeyValue("repository", repository)
+                    .lowCardinalityKeyValue("method", method)
+                    .observeChecked(invocation::proceed);
+        };
+    }
+}
@@ -0,0 +1,11 @@
+-- V3: Trigram indexes backing GET /api/v1/search
+-- pg_trgm is a trusted extension (PostgreSQL 13+), so the database owner may create it
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- GIN trigram indexes serve both similarity (%) and ILIKE '%term%' lookups
+CREATE INDEX IF NOT EXISTS idx_races_name_trgm ON races USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_first_name_trgm ON users USING gin (first_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_trgm ON users USING gin (last_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (email gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_club_trgm ON users USING gin (club gin_trgm_ops);
@@ -0,0 +1,32 @@
+-- V4: Counter tables for registration dashboards
+-- Maintained by EventListeners in the same transaction as the application/race change,
+-- and checked against a full recount by StatsReconciliationJob
+
+CREATE TABLE IF NOT EXISTS race_stats (
+  race_id UUID PRIMARY KEY REFERENCES races(id) ON DELETE CASCADE,
+  applications BIGINT NOT NULL DEFAULT 0
+);
+
+-- Applicants without a club are not counted here
+CREATE TABLE IF NOT EXISTS club_stats (
+  club VARCHAR(255) PRIMARY KEY,
+  applications BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS distance_stats (
+  distance VARCHAR(32) PRIMARY KEY,
+  applications BIGINT NOT NULL DEFAULT 0
+);
+
+-- Seed from the data already projected
+INSERT INTO race_stats (race_id, applications)
+SELECT r.id, COUNT(a.id) FROM races r LEFT JOIN applications a ON a.race_id = r.id GROUP BY r.id
+ON CONFLICT (race_id) DO NOTHING;
+
+INSERT INTO club_stats (club, applications)
+SELECT u.club, COUNT(*) FROM applications a JOIN users u ON u.id = a.user_id WHERE u.club IS NOT NULL GROUP BY u.club
+ON CONFLICT (club) DO NOTHING;
+
+INSERT INTO distance_stats (distance, applications)
+SELECT r.distance, COUNT(*) FROM applications a JOIN races r ON r.id = a.race_id GROUP BY r.distance
+ON CONFLICT (distance) DO NOTHING;
@@ -0,0 +1,23 @@
+-- V5: Indexes matched to the repository queries
+-- Checked by QueryPlanTest in the query service (make plancheck), which fails on a sequential scan or sort
+-- where one of these indexes should serve the query
+
+-- 1. users.email was unique three times over: the inline UNIQUE (users_email_key), uk_users_email and
+-- idx_users_email, so every user insert and email change maintained three identical B-trees.
+-- users_email_key stays; it serves findByEmail, existsByEmail and ON CONFLICT (email).
+DROP INDEX IF EXISTS idx_users_email;
+ALTER TABLE users DROP CONSTRAINT IF EXISTS uk_users_email;
+
+-- 2. role has two values and every query that filters on it alone asks for the rare one.
+-- A partial index is a handful of entries instead of one per user.
+DROP INDEX IF EXISTS idx_users_role;
+CREATE INDEX IF NOT EXISTS idx_users_administrators ON users (id) WHERE role = 'Administrator';
+
+-- 3. uk_applications_user_race (user_id, race_id) already serves every lookup by user_id
+DROP INDEX IF EXISTS idx_applications_user_id;
+
+-- 4. Rosters filter on race_id and page in (created_at, id) order; with user_id included the applications side
+-- of a roster, and the per-race counts behind the stats tables, read the index alone.
+-- Replaces idx_applications_race_id, which is its leading column.
+CREATE INDEX IF NOT EXISTS idx_applications_race_created ON applications (race_id, created_at, id) INCLUDE (user_id);
+DROP INDEX IF EXISTS idx_applications_race_id;
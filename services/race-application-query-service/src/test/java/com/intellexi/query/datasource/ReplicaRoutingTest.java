@@ -0,0 +1,89 @@
+package com.intellexi.query.datasource;
+
+import com.intellexi.query.model.Race;
+import com.intellexi.query.repo.RaceRepository;
+import com.intellexi.query.support.TestInfrastructure;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Routes reads to a "replica" that is the shared database itself, which reports no lag. What matters here is what
+ * the routing does around the connection, not that the rows come from another server.
+ */
+@SpringBootTest(properties = {"app.datasource.replica.enabled=true", "spring.datasource.hikari.maximum-pool-size=7"})
+class ReplicaRoutingTest {
+    @DynamicPropertySource
+    static void infrastructure(DynamicPropertyRegistry registry) {
+        TestInfrastructure.register(registry);
+        registry.add("app.datasource.replica.url", () -> TestInfrastructure.properties().get("spring.datasource.url"));
+        registry.add("app.datasource.replica.username", () -> "postgres");
+        registry.add("app.datasource.replica.password", () -> "postgres");
+    }
+
+    @Autowired
+    private RaceRepository raceRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void awaitReplica() {
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> meterRegistry.get("datasource.replica.usable").gauge().value() == 1);
+    }
+
+    @Test
+    void readsFromTheReplicaAreNotCached() {
+        UUID raceId = race();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        double replicaReads = meterRegistry.get("datasource.routing").tag("pool", "replica").counter().count();
+
+        Optional<Race> race = readOnly.execute(status -> raceRepository.findById(raceId));
+
+        assertThat(race).isPresent();
+        assertThat(meterRegistry.get("datasource.routing").tag("pool", "replica").counter().count()).isGreaterThan(replicaReads);
+        assertThat(entityManagerFactory.getCache().contains(Race.class, raceId)).isFalse();
+    }
+
+    @Test
+    void readsFromThePrimaryAreCached() {
+        UUID raceId = race();
+
+        Optional<Race> race = new TransactionTemplate(transactionManager).execute(status -> raceRepository.findById(raceId));
+
+        assertThat(race).isPresent();
+        assertThat(entityManagerFactory.getCache().contains(Race.class, raceId)).isTrue();
+    }
+
+    @Test
+    void primaryPoolTakesBootsHikariProperties() {
+        assertThat(meterRegistry.get("hikaricp.connections.max").tag("pool", "primary").gauge().value()).isEqualTo(7);
+    }
+
+    private static UUID race() {
+        UUID raceId = UUID.randomUUID();
+        new JdbcTemplate(TestInfrastructure.dataSource())
+                .update("INSERT INTO races (id, name, distance) VALUES (?, ?, '10k')", raceId, "Replica Run " + raceId);
+        return raceId;
+    }
+}
@@ -0,0 +1,120 @@
+package com.intellexi.query.graphql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.intellexi.query.support.TestInfrastructure;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * /graphql on virtual threads, where Spring for GraphQL runs the controller methods on the task executor and
+ * answers asynchronously. Each request must take and give back exactly one slot, and the fetchers and loaders on
+ * the executor's threads must draw on the request's share of the pool. Interactive requests get two slots and no
+ * queue, so a leaked slot shows up as 503 within a few requests; bulk gets no connections at all.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "app.bulkhead.enabled=true",
+        "app.bulkhead.interactive.max-concurrent=2",
+        "app.bulkhead.interactive.max-queued=0",
+        "app.bulkhead.bulk.max-connections=0",
+        "app.bulkhead.bulk.connection-wait=PT0.1S"})
+class GraphQlBulkheadTest {
+    private static final String QUERY = "{ applications { id race { name } user { email } } }";
+    private static final int REQUESTS = 10;
+    private static String applicantEmail;
+    private static String adminEmail;
+
+    @DynamicPropertySource
+    static void infrastructure(DynamicPropertyRegistry registry) {
+        TestInfrastructure.register(registry);
+    }
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // After the context has started, so Flyway has created the tables
+    @BeforeEach
+    void seed() {
+        if (applicantEmail != null) {
+            return;
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(TestInfrastructure.dataSource());
+        String suffix = UUID.randomUUID().toString();
+        applicantEmail = "graphql-applicant-" + suffix + "@example.com";
+        adminEmail = "graphql-admin-" + suffix + "@example.com";
+        UUID applicantId = UUID.randomUUID();
+        UUID raceId = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, first_name, last_name, email, role) VALUES "
+                        + "(?, 'GraphQl', 'Applicant', ?, 'Applicant'), (gen_random_uuid(), 'GraphQl', 'Admin', ?, 'Administrator')",
+                applicantId, applicantEmail, adminEmail);
+        jdbc.update("INSERT INTO races (id, name, distance) VALUES (?, ?, '10k')", raceId, "GraphQl Run " + suffix);
+        jdbc.update("INSERT INTO applications (id, race_id, user_id) VALUES (gen_random_uuid(), ?, ?)", raceId, applicantId);
+    }
+
+    @Test
+    void asyncRequestsGiveTheirSlotBack() {
+        String token = token(applicantEmail, "Applicant");
+        double permitted = requests("interactive", "permitted");
+
+        for (int i = 0; i < REQUESTS; i++) {
+            ResponseEntity<JsonNode> response = graphql(token);
+            assertThat(response.getStatusCode().is2xxSuccessful()).as(String.valueOf(response)).isTrue();
+            assertThat(response.getBody().has("errors")).as(String.valueOf(response.getBody())).isFalse();
+            JsonNode application = response.getBody().at("/data/applications/0");
+            assertThat(application.at("/race/name").asText()).startsWith("GraphQl Run");
+            assertThat(application.at("/user/email").asText()).isEqualTo(applicantEmail);
+        }
+
+        // Once for the request dispatch, not again for the async dispatch
+        assertThat(requests("interactive", "permitted") - permitted).isEqualTo(REQUESTS);
+        assertThat(meterRegistry.get("bulkhead.active").tag("partition", "interactive").gauge().value()).isZero();
+        assertThat(meterRegistry.get("bulkhead.connections.active").tag("partition", "interactive").gauge().value()).isZero();
+    }
+
+    @Test
+    void executorThreadsDrawOnTheRequestsConnections() {
+        String token = token(adminEmail, "Administrator");
+        double rejected = meterRegistry.get("bulkhead.connections.rejected").tag("partition", "bulk").counter().count();
+
+        ResponseEntity<JsonNode> response = graphql(token);
+
+        // Bulk has no connections, so the fetcher fails rather than taking one outside the partition
+        assertThat(response.getBody().has("errors")).as(String.valueOf(response.getBody())).isTrue();
+        assertThat(meterRegistry.get("bulkhead.connections.rejected").tag("partition", "bulk").counter().count())
+                .isGreaterThan(rejected);
+        assertThat(meterRegistry.get("bulkhead.active").tag("partition", "bulk").gauge().value()).isZero();
+    }
+
+    private double requests(String partition, String outcome) {
+        return meterRegistry.get("bulkhead.requests").tags("partition", partition, "outcome", outcome).counter().count();
+    }
+
+    private ResponseEntity<JsonNode> graphql(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return rest.postForEntity("/graphql", new HttpEntity<>(Map.of("query", QUERY), headers), JsonNode.class);
+    }
+
+    private String token(String email, String role) {
+        ResponseEntity<JsonNode> response = rest.postForEntity("/auth/token", Map.of("email", email, "role", role), JsonNode.class);
+        assertThat(response.getStatusCode().is2xxSuccessful()).as(String.valueOf(response)).isTrue();
+        return response.getBody().get("token").asText();
+    }
+}
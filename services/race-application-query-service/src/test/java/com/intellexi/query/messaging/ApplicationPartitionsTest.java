@@ -0,0 +1,162 @@
+package com.intellexi.query.messaging;
+
+import com.intellexi.query.QueryServiceApplication;
+import com.intellexi.query.repo.ApplicationRepository;
+import com.intellexi.query.support.TestInfrastructure;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Four application partitions on queues and a routing key of their own, so the other tests' services neither consume
+ * nor publish them. The queues start out bound the way a run with one partition, and one with eight, left them.
+ */
+class ApplicationPartitionsTest {
+    private static final String EXCHANGE = "events.exchange";
+    private static final String QUEUE = "partitions-test.applications";
+    private static final String ROUTING_KEY = "partitions-test.application.events";
+    private static final int PARTITIONS = 4;
+    private static ConfigurableApplicationContext context;
+
+    @BeforeAll
+    static void start() {
+        Map<String, Object> properties = TestInfrastructure.properties();
+        CachingConnectionFactory connectionFactory = new CachingConnectionFactory("localhost", (Integer) properties.get("spring.rabbitmq.port"));
+        try {
+            RabbitAdmin admin = new RabbitAdmin(connectionFactory);
+            admin.declareExchange(new TopicExchange(EXCHANGE, true, false));
+            admin.declareQueue(QueueBuilder.durable(QUEUE).build());
+            for (int bucket = 0; bucket < ApplicationPartitions.BUCKETS; bucket++) {
+                admin.declareBinding(binding(QUEUE, bucket));
+            }
+            admin.declareQueue(QueueBuilder.durable(QUEUE + ".5").build());
+            admin.declareBinding(binding(QUEUE + ".5", 5));
+        } finally {
+            connectionFactory.destroy();
+        }
+
+        properties.put("server.port", 0);
+        properties.put("app.rabbit.queues.applications", QUEUE);
+        properties.put("app.rabbit.routing.application", ROUTING_KEY);
+        properties.put("app.rabbit.queues.application-partitions", PARTITIONS);
+        // The routing test reads queue depths, so nothing consumes until the ordering test starts the partitions
+        properties.put("spring.rabbitmq.listener.simple.auto-startup", false);
+        context = new SpringApplicationBuilder(QueryServiceApplication.class).run(properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new));
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) context.close();
+    }
+
+    @Test
+    void eachBucketReachesExactlyOnePartition() {
+        AmqpAdmin amqpAdmin = context.getBean(AmqpAdmin.class);
+        RabbitTemplate rabbitTemplate = context.getBean(RabbitTemplate.class);
+        ApplicationPartitions partitions = context.getBean(ApplicationPartitions.class);
+        // Opens the connection, on which the partitions are declared and the stale bindings removed
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            amqpAdmin.purgeQueue(partitions.queue(partition), false);
+        }
+
+        for (int bucket = 0; bucket < ApplicationPartitions.BUCKETS; bucket++) {
+            rabbitTemplate.convertAndSend(EXCHANGE, ROUTING_KEY + "." + bucket, Map.of("bucket", bucket));
+        }
+        rabbitTemplate.convertAndSend(EXCHANGE, ROUTING_KEY, Map.of("bucket", "none"));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> depth(amqpAdmin, QUEUE) == 5);
+        for (int partition = 1; partition < PARTITIONS; partition++) {
+            String queue = partitions.queue(partition);
+            await().atMost(Duration.ofSeconds(10)).until(() -> depth(amqpAdmin, queue) == 4);
+        }
+        // Beyond the count, unbound: what it holds would otherwise be applied twice
+        assertThat(depth(amqpAdmin, QUEUE + ".5")).isZero();
+        assertThat(depth(amqpAdmin, QUEUE)).isEqualTo(5);
+    }
+
+    @Test
+    void eachApplicationIsAppliedInOrder() {
+        AmqpAdmin amqpAdmin = context.getBean(AmqpAdmin.class);
+        RabbitTemplate rabbitTemplate = context.getBean(RabbitTemplate.class);
+        RabbitListenerEndpointRegistry registry = context.getBean(RabbitListenerEndpointRegistry.class);
+        ApplicationPartitions partitions = context.getBean(ApplicationPartitions.class);
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            amqpAdmin.purgeQueue(partitions.queue(partition), false);
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(TestInfrastructure.dataSource());
+        UUID raceId = UUID.randomUUID();
+        jdbc.update("INSERT INTO races (id, name, distance) VALUES (?, ?, '10k')", raceId, "Partition Run " + raceId);
+
+        List<UUID> applicationIds = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            UUID id = UUID.randomUUID();
+            String email = "partition-" + id + "@example.com";
+            jdbc.update("INSERT INTO users (id, first_name, last_name, email, role) VALUES (gen_random_uuid(), 'Partition', 'Applicant', ?, 'Applicant')",
+                    email);
+            applicationIds.add(id);
+            String routingKey = ROUTING_KEY + "." + Math.floorMod(id.hashCode(), ApplicationPartitions.BUCKETS);
+            send(rabbitTemplate, routingKey, "ApplicationCreated", Map.of("id", id, "raceId", raceId, "applicantEmail", email));
+            send(rabbitTemplate, routingKey, "ApplicationDeleted", Map.of("id", id, "applicantEmail", email, "initiatorRole", "Applicant"));
+        }
+        List<MessageListenerContainer> containers = new ArrayList<>();
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            containers.add(registry.getListenerContainer(partitions.listenerId(partition)));
+        }
+        assertThat(containers).allSatisfy(container -> assertThat(container).isInstanceOf(SimpleMessageListenerContainer.class));
+        ApplicationRepository applications = context.getBean(ApplicationRepository.class);
+        try {
+            containers.forEach(MessageListenerContainer::start);
+            for (int partition = 0; partition < PARTITIONS; partition++) {
+                String queue = partitions.queue(partition);
+                await().atMost(Duration.ofSeconds(30)).until(() -> depth(amqpAdmin, queue) == 0);
+            }
+            // A delete that overtook its create would find nothing to delete, and the application would stay
+            await().atMost(Duration.ofSeconds(10)).until(() -> applications.findAllById(applicationIds).isEmpty());
+        } finally {
+            // The routing test counts what reaches the queues
+            containers.forEach(MessageListenerContainer::stop);
+        }
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM applications WHERE race_id = ?", Long.class, raceId)).isZero();
+    }
+
+    private static void send(RabbitTemplate rabbitTemplate, String routingKey, String type, Map<String, Object> payload) {
+        rabbitTemplate.convertAndSend(EXCHANGE, routingKey, payload, message -> {
+            message.getMessageProperties().setHeader("__TypeId__", "com.intellexi.command.events.ApplicationEvents$" + type);
+            return message;
+        });
+    }
+
+    private static long depth(AmqpAdmin amqpAdmin, String queue) {
+        Properties properties = amqpAdmin.getQueueProperties(queue);
+        return properties == null ? -1 : ((Number) properties.get(RabbitAdmin.QUEUE_MESSAGE_COUNT)).longValue();
+    }
+
+    private static Binding binding(String queue, int bucket) {
+        return new Binding(queue, Binding.DestinationType.QUEUE, EXCHANGE, ROUTING_KEY + "." + bucket, null);
+    }
+}
@@ -0,0 +1,83 @@
+package com.intellexi.query.messaging;
+
+import com.intellexi.query.QueryServiceApplication;
+import com.intellexi.query.model.Race;
+import com.intellexi.query.repo.RaceRepository;
+import com.intellexi.query.support.TestInfrastructure;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Two query service replicas on one broker and database: a race event applied by one must evict the race from the
+ * other's second-level cache, or the other keeps serving the old version.
+ */
+class CacheInvalidationTest {
+    private static ConfigurableApplicationContext writer;
+    private static ConfigurableApplicationContext reader;
+
+    @BeforeAll
+    static void startReplicas() {
+        writer = replica();
+        reader = replica();
+    }
+
+    @AfterAll
+    static void stopReplicas() {
+        if (writer != null) writer.close();
+        if (reader != null) reader.close();
+    }
+
+    @Test
+    void raceUpdateOnOneReplicaEvictsItFromTheOther() {
+        UUID raceId = UUID.randomUUID();
+        // Calls the listener method directly, so it is the writer and not whichever replica the broker picks
+        EventListeners writerListeners = writer.getBean(EventListeners.class);
+        writerListeners.onRaceEvent(Map.of("id", raceId.toString(), "name", "Invalidation Run " + raceId, "distance", "10k"));
+
+        RaceRepository readerRaces = reader.getBean(RaceRepository.class);
+        EntityManagerFactory readerCache = reader.getBean(EntityManagerFactory.class);
+        assertThat(readerRaces.findById(raceId)).map(Race::getName).contains("Invalidation Run " + raceId);
+        assertThat(readerCache.getCache().contains(Race.class, raceId)).isTrue();
+
+        writerListeners.onRaceEvent(Map.of("id", raceId.toString(), "name", "Renamed Run " + raceId));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> !readerCache.getCache().contains(Race.class, raceId));
+        assertThat(readerRaces.findById(raceId)).map(Race::getName).contains("Renamed Run " + raceId);
+    }
+
+    @Test
+    void raceDeleteOnOneReplicaEvictsItFromTheOther() {
+        UUID raceId = UUID.randomUUID();
+        EventListeners writerListeners = writer.getBean(EventListeners.class);
+        writerListeners.onRaceEvent(Map.of("id", raceId.toString(), "name", "Deleted Run " + raceId, "distance", "5k"));
+
+        RaceRepository readerRaces = reader.getBean(RaceRepository.class);
+        EntityManagerFactory readerCache = reader.getBean(EntityManagerFactory.class);
+        assertThat(readerRaces.findById(raceId)).isPresent();
+
+        writerListeners.onRaceEvent(Map.of("id", raceId.toString()));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> !readerCache.getCache().contains(Race.class, raceId));
+        assertThat(readerRaces.findById(raceId)).isEmpty();
+    }
+
+    private static ConfigurableApplicationContext replica() {
+        Map<String, Object> properties = TestInfrastructure.properties();
+        properties.put("server.port", 0);
+        // Command-line style, so they outrank the service's application.yml
+        return new SpringApplicationBuilder(QueryServiceApplication.class).run(properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new));
+    }
+}
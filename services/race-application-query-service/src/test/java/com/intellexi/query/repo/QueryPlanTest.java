@@ -0,0 +1,317 @@
+package com.intellexi.query.repo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellexi.query.dto.ApplicationWithUserDto;
+import com.intellexi.query.json.ApplicationRows;
+import com.intellexi.query.model.User;
+import com.intellexi.query.support.TestInfrastructure;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan regression test. Seeds a database of its own to a realistic size, calls each repository query once
+ * through the service's own beans, and runs EXPLAIN (FORMAT JSON) on every statement the call sent, with the same
+ * parameters. A query expected to be served by an index fails on a sequential scan of a table larger than a few
+ * pages, or on a sort. Run after changing a repository query or a migration; it is part of mvn test.
+ */
+@SpringBootTest(properties = {
+        // Every call has to reach the database to have a plan
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"})
+class QueryPlanTest {
+    private static final String DATABASE = "plancheck";
+    private static final int USERS = 20_000;
+    private static final int RACES = 2_000;
+    private static final int APPLICATIONS_PER_USER = 5;
+    // Reading a table this small whole costs less than index lookups, and the planner rightly prefers it
+    private static final int SMALL_TABLE_PAGES = 64;
+    private static final Recorder recorder = new Recorder();
+    private static boolean seeded;
+
+    enum Expect {
+        INDEX,           // every table read through an index, rows already in the requested order
+        INDEX_THEN_SORT, // every table read through an index; the order is on a joined column or a score, so computed
+        FULL_READ        // reads the whole table by design; only checked to send a statement
+    }
+
+    private record Case(String name, Expect expect, Runnable call) {}
+
+    private record Recorded(String sql, List<ParameterSetOperation> parameters) {}
+
+    @DynamicPropertySource
+    static void infrastructure(DynamicPropertyRegistry registry) {
+        TestInfrastructure.properties(DATABASE).forEach((name, value) -> registry.add(name, () -> value));
+    }
+
+    @TestConfiguration
+    static class Recording {
+        // Wraps the service's dataSource before its own proxies, so the raw SQL and driver calls are seen
+        @Bean
+        static BeanPostProcessor planRecordingDataSource() {
+            return new RecordingPostProcessor();
+        }
+    }
+
+    private static final class RecordingPostProcessor implements BeanPostProcessor, PriorityOrdered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                return ProxyDataSourceBuilder.create(dataSource).name("plancheck").listener(recorder).build();
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    @Autowired
+    private ApplicationRepository applications;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private RaceRepository races;
+    @Autowired
+    private ApplicationRows applicationRows;
+
+    // After the context has started, so Flyway has created the tables
+    @BeforeEach
+    void seed() throws SQLException {
+        if (seeded) {
+            return;
+        }
+        seed(TestInfrastructure.dataSource(DATABASE));
+        seeded = true;
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseTheirIndexes() throws SQLException {
+        DataSource database = TestInfrastructure.dataSource(DATABASE);
+        Map<String, Integer> pages = pages(database);
+        return cases(database).stream().map(c -> DynamicTest.dynamicTest(c.name(), () -> check(c, database, pages)));
+    }
+
+    private List<Case> cases(DataSource database) throws SQLException {
+        // Arguments are real rows, picked once; the roster race is a typical one with its club filter
+        List<UUID> applicationIds = uuids(database, "SELECT id FROM applications ORDER BY id LIMIT 20");
+        List<UUID> raceIds = uuids(database, "SELECT id FROM races ORDER BY id LIMIT 20");
+        UUID raceId = raceIds.get(0);
+        UUID userId = uuids(database, "SELECT id FROM users WHERE email LIKE 'plancheck-user%' ORDER BY id LIMIT 1").get(0);
+        String email = string(database, "SELECT email FROM users WHERE id = '" + userId + "'");
+        String club = string(database, "SELECT u.club FROM applications a JOIN users u ON u.id = a.user_id "
+                + "WHERE a.race_id = '" + raceId + "' AND u.club IS NOT NULL LIMIT 1");
+        String lastName = string(database, "SELECT last_name FROM users WHERE id = '" + userId + "'");
+        List<ApplicationWithUserDto> firstPage = applications.findRosterByCreatedAt(raceId, null, null, null, Limit.of(21));
+        ApplicationWithUserDto pageEnd = firstPage.get(firstPage.size() - 1);
+        Instant afterCreatedAt = pageEnd.getCreatedAt();
+        String term = lastName.substring(0, 5);
+        String pattern = "%" + term + "%";
+
+        return List.of(
+                new Case("ApplicationRepository.findById", Expect.INDEX, () -> applications.findById(applicationIds.get(0))),
+                new Case("ApplicationRepository.findAllById", Expect.INDEX, () -> applications.findAllById(applicationIds)),
+                new Case("ApplicationRepository.findByUserId", Expect.INDEX, () -> applications.findByUserId(userId)),
+                new Case("ApplicationRepository.findWithUserByIdIn", Expect.INDEX, () -> applications.findWithUserByIdIn(applicationIds)),
+                new Case("ApplicationRepository.findRosterByCreatedAt", Expect.INDEX,
+                        () -> applications.findRosterByCreatedAt(raceId, null, null, null, Limit.of(21))),
+                new Case("ApplicationRepository.findRosterByCreatedAt (next page)", Expect.INDEX,
+                        () -> applications.findRosterByCreatedAt(raceId, null, afterCreatedAt, pageEnd.getId(), Limit.of(21))),
+                new Case("ApplicationRepository.findRosterByLastName", Expect.INDEX_THEN_SORT,
+                        () -> applications.findRosterByLastName(raceId, null, null, null, Limit.of(21))),
+                new Case("ApplicationRepository.findRosterByLastName (club)", Expect.INDEX_THEN_SORT,
+                        () -> applications.findRosterByLastName(raceId, club, null, null, Limit.of(21))),
+                new Case("ApplicationRepository.findRosterByClub", Expect.INDEX_THEN_SORT,
+                        () -> applications.findRosterByClub(raceId, null, null, null, Limit.of(21))),
+                new Case("ApplicationRepository.findAll", Expect.FULL_READ, applications::findAll),
+                new Case("ApplicationRows.forEachOf", Expect.INDEX, () -> applicationRows.forEachOf(email, rs -> {})),
+                new Case("ApplicationRows.forEach", Expect.FULL_READ, () -> applicationRows.forEach(rs -> {})),
+
+                new Case("UserRepository.findById", Expect.INDEX, () -> users.findById(userId)),
+                new Case("UserRepository.findByEmail", Expect.INDEX, () -> users.findByEmail(email)),
+                new Case("UserRepository.existsByEmail", Expect.INDEX, () -> users.existsByEmail(email)),
+                new Case("UserRepository.findByRole (Administrator)", Expect.INDEX, () -> users.findByRole(User.Role.Administrator)),
+                new Case("UserRepository.findByRole (Applicant)", Expect.FULL_READ, () -> users.findByRole(User.Role.Applicant)),
+                new Case("UserRepository.findAllOrderedByName", Expect.FULL_READ, users::findAllOrderedByName),
+                new Case("UserRepository.searchApplicantsContaining", Expect.INDEX_THEN_SORT,
+                        () -> users.searchApplicantsContaining(term, pattern, 20)),
+                new Case("UserRepository.searchApplicantsSimilarTo", Expect.INDEX_THEN_SORT,
+                        () -> users.searchApplicantsSimilarTo(term, pattern, 20)),
+
+                new Case("RaceRepository.findById", Expect.INDEX, () -> races.findById(raceId)),
+                new Case("RaceRepository.findAllById", Expect.INDEX, () -> races.findAllById(raceIds)),
+                new Case("RaceRepository.findAllOrderedByName", Expect.FULL_READ, races::findAllOrderedByName),
+                new Case("RaceRepository.search", Expect.INDEX_THEN_SORT, () -> races.search("Harbour Classic", "%Harbour Classic%", 20)));
+    }
+
+    private static void check(Case c, DataSource database, Map<String, Integer> pages) throws Exception {
+        List<Recorded> statements = recorder.record(c.call());
+        assertThat(statements).as("%s sent no statement", c.name()).isNotEmpty();
+        if (c.expect() == Expect.FULL_READ) {
+            return;
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (Recorded statement : statements) {
+            JsonNode plan = explain(database, statement, objectMapper).get(0).get("Plan");
+            List<String> nodes = new ArrayList<>();
+            List<String> problems = new ArrayList<>();
+            walk(plan, c.expect(), pages, nodes, problems);
+            assertThat(problems).as("expected %s, plan: %s%n%s", c.expect(), String.join(" > ", nodes), statement.sql())
+                    .isEmpty();
+        }
+    }
+
+    private static JsonNode explain(DataSource database, Recorded statement, ObjectMapper objectMapper) throws Exception {
+        try (Connection connection = database.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            // Replays the driver calls Hibernate or JdbcTemplate made, so parameters keep their types
+            for (ParameterSetOperation operation : statement.parameters()) {
+                operation.getMethod().invoke(explain, operation.getArgs());
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                rs.next();
+                return objectMapper.readTree(rs.getString(1));
+            }
+        }
+    }
+
+    private static void walk(JsonNode node, Expect expect, Map<String, Integer> pages, List<String> nodes,
+                             List<String> problems) {
+        String type = node.path("Node Type").asText();
+        String relation = node.path("Relation Name").asText(null);
+        String index = node.path("Index Name").asText(null);
+        boolean small = type.equals("Seq Scan") && pages.getOrDefault(relation, Integer.MAX_VALUE) <= SMALL_TABLE_PAGES;
+        nodes.add(type + (relation == null ? "" : " on " + relation) + (index == null ? "" : " using " + index)
+                + (small ? " (" + pages.get(relation) + " pages)" : ""));
+        if (type.equals("Seq Scan") && !small) {
+            problems.add("Seq Scan on " + relation);
+        } else if (type.endsWith("Sort") && expect == Expect.INDEX) {
+            problems.add(type);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            walk(child, expect, pages, nodes, problems);
+        }
+    }
+
+    private static Map<String, Integer> pages(DataSource database) throws SQLException {
+        Map<String, Integer> pages = new HashMap<>();
+        try (Connection connection = database.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT relname, relpages FROM pg_class WHERE relkind = 'r'")) {
+            while (rs.next()) {
+                pages.put(rs.getString(1), rs.getInt(2));
+            }
+        }
+        return pages;
+    }
+
+    // Names, clubs and emails spread like real data, so the planner's estimates are meaningful
+    private static void seed(DataSource database) throws SQLException {
+        try (Connection connection = database.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, first_name, last_name, email, role, club) "
+                    + "SELECT gen_random_uuid(), (ARRAY['Ana','Ivan','Marko','Petra','Luka','Maja','Tomislav','Iva','Josip','Nina'])[1 + n % 10], "
+                    + "initcap(substr(md5(n::text), 1, 8)), 'plancheck-user' || n || '@example.com', "
+                    + "CASE WHEN n % 1000 = 0 THEN 'Administrator' ELSE 'Applicant' END, "
+                    + "CASE WHEN n % 7 = 0 THEN NULL ELSE 'Club ' || (n % 300) END "
+                    + "FROM generate_series(1, " + USERS + ") AS n");
+            statement.execute("INSERT INTO races (id, name, distance) "
+                    + "SELECT gen_random_uuid(), (ARRAY['City','Trail','Night','Coastal','Mountain','River','Forest','Harbour'])[1 + n % 8] "
+                    + "|| ' ' || (ARRAY['Marathon','Run','Dash','Challenge','Classic'])[1 + n / 8 % 5] || ' ' || n, "
+                    + "(ARRAY['5k','10k','HalfMarathon','Marathon'])[1 + n % 4] "
+                    + "FROM generate_series(1, " + RACES + ") AS n");
+            // Each applicant in distinct races, applications spread over time
+            statement.execute("INSERT INTO applications (id, race_id, user_id, created_at) "
+                    + "SELECT gen_random_uuid(), r.id, u.id, now() - (u.n * " + APPLICATIONS_PER_USER + " + k) * interval '1 second' "
+                    + "FROM (SELECT id, row_number() OVER (ORDER BY id) AS n FROM users) u "
+                    + "CROSS JOIN generate_series(0, " + (APPLICATIONS_PER_USER - 1) + ") AS k "
+                    + "JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM races) r "
+                    + "ON r.n = (u.n * 7 + k * 131) % " + RACES);
+            // Fresh statistics, and a visibility map so index-only scans are on the table
+            statement.execute("VACUUM ANALYZE");
+        }
+    }
+
+    private static List<UUID> uuids(DataSource database, String sql) throws SQLException {
+        List<UUID> ids = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getObject(1, UUID.class));
+            }
+        }
+        return ids;
+    }
+
+    private static String string(DataSource database, String sql) throws SQLException {
+        try (Connection connection = database.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    /** Collects the statements the calling thread sends while a case runs; listeners and jobs are ignored. */
+    private static final class Recorder implements QueryExecutionListener {
+        private final List<Recorded> statements = new ArrayList<>();
+        private volatile Thread thread;
+
+        List<Recorded> record(Runnable call) {
+            statements.clear();
+            thread = Thread.currentThread();
+            try {
+                call.run();
+            } finally {
+                thread = null;
+            }
+            return List.copyOf(statements);
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (Thread.currentThread() != thread) return;
+            for (QueryInfo query : queryInfoList) {
+                List<List<ParameterSetOperation>> parameters = query.getParametersList();
+                statements.add(new Recorded(query.getQuery(), parameters.isEmpty() ? List.of() : parameters.get(0)));
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.intellexi.query.sql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.intellexi.query.repo.ApplicationRepository;
+import com.intellexi.query.repo.RaceRepository;
+import com.intellexi.query.support.TestInfrastructure;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the query service with app.sql.strict=true, so any handler or listener that goes over its statement budget
+ * fails instead of logging a warning, and the build fails with it. On virtual threads, so /graphql runs its fetchers
+ * on the task executor and answers asynchronously.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.sql.strict=true", "spring.threads.virtual.enabled=true"})
+@AutoConfigureMockMvc
+class StatementBudgetTest {
+    private static final String COMMAND_EVENTS = "com.intellexi.command.events.";
+    private static final String GET_APPLICATION = "GET /api/v1/applications/{id}";
+
+    @DynamicPropertySource
+    static void infrastructure(DynamicPropertyRegistry registry) {
+        TestInfrastructure.register(registry);
+    }
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private SqlStatementCounter counter;
+    @Autowired
+    private RaceRepository raceRepository;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Value("${app.rabbit.exchange}")
+    private String exchange;
+
+    @Test
+    void endpointsAndEventsStayWithinTheirBudgets() {
+        JdbcTemplate jdbc = new JdbcTemplate(TestInfrastructure.dataSource());
+        String suffix = UUID.randomUUID().toString();
+        String applicantEmail = "budget-applicant-" + suffix + "@example.com";
+        String adminEmail = "budget-admin-" + suffix + "@example.com";
+        jdbc.update("INSERT INTO users (id, first_name, last_name, email, role, club) VALUES "
+                        + "(gen_random_uuid(), 'Budget', 'Applicant', ?, 'Applicant', 'Budget Club'), "
+                        + "(gen_random_uuid(), 'Budget', 'Admin', ?, 'Administrator', NULL)",
+                applicantEmail, adminEmail);
+        UUID raceId = UUID.randomUUID();
+        UUID applicationId = UUID.randomUUID();
+
+        send("race.events", "RaceEvents$RaceCreated", Map.of("id", raceId, "name", "Budget Run " + suffix, "distance", "10k"));
+        await().atMost(Duration.ofSeconds(10)).until(() -> raceRepository.existsById(raceId));
+        send("application.events", "ApplicationEvents$ApplicationCreated",
+                Map.of("id", applicationId, "raceId", raceId, "applicantEmail", applicantEmail));
+        await().atMost(Duration.ofSeconds(10)).until(() -> applicationRepository.existsById(applicationId));
+
+        String applicant = token(applicantEmail, "Applicant");
+        String admin = token(adminEmail, "Administrator");
+        assertOk(get(applicant, "/api/v1/races"));
+        assertOk(get(applicant, "/api/v1/races/" + raceId));
+        assertOk(get(admin, "/api/v1/races/" + raceId + "/applications"));
+        assertOk(get(admin, "/api/v1/races/" + raceId + "/applications?sort=createdAt"));
+        assertOk(get(admin, "/api/v1/search?q=Budget"));
+        assertOk(get(applicant, "/api/v1/applications"));
+        assertOk(get(applicant, "/api/v1/applications/" + applicationId));
+        assertOk(get(admin, "/api/v1/stats/races/" + raceId));
+        assertOk(get(admin, "/api/v1/stats/clubs/Budget Club"));
+        assertOk(get(admin, "/api/v1/stats/distances"));
+        assertOk(get(admin, "/api/v1/stats/distances/10k"));
+        assertOk(post(applicant, "/api/v1/races:lookup", List.of(raceId)));
+        assertOk(post(applicant, "/api/v1/applications:lookup", List.of(applicationId)));
+
+        send("race.events", "RaceEvents$RaceUpdated", Map.of("id", raceId, "name", "Budget Run Renamed " + suffix));
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> raceRepository.findById(raceId).map(r -> r.getName().startsWith("Budget Run Renamed")).orElse(false));
+        send("application.events", "ApplicationEvents$ApplicationDeleted",
+                Map.of("id", applicationId, "applicantEmail", applicantEmail, "initiatorRole", "Applicant"));
+        await().atMost(Duration.ofSeconds(10)).until(() -> !applicationRepository.existsById(applicationId));
+        send("race.events", "RaceEvents$RaceDeleted", Map.of("id", raceId));
+        await().atMost(Duration.ofSeconds(10)).until(() -> !raceRepository.existsById(raceId));
+
+        // Each event ran inside its budget scope, and nothing anywhere went over
+        for (String event : List.of("RaceCreated", "RaceUpdated", "RaceDeleted", "ApplicationCreated", "ApplicationDeleted")) {
+            DistributionSummary statements = meterRegistry.find("sql.statements").tags("kind", "amqp", "name", event).summary();
+            assertThat(statements).as(event).isNotNull();
+            assertThat(statements.count()).as(event).isPositive();
+        }
+        assertThat(meterRegistry.find("sql.statements.budget.exceeded").counters())
+                .allSatisfy(exceeded -> assertThat(exceeded.count()).as(exceeded.getId().toString()).isZero());
+    }
+
+    @Test
+    void loadingEachApplicantSeparatelyGoesOverBudget() {
+        JdbcTemplate jdbc = new JdbcTemplate(TestInfrastructure.dataSource());
+        UUID raceId = UUID.randomUUID();
+        List<UUID> applicationIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        jdbc.update("INSERT INTO races (id, name, distance) VALUES (?, ?, '5k')", raceId, "N+1 Run " + raceId);
+        for (UUID applicationId : applicationIds) {
+            UUID userId = UUID.randomUUID();
+            jdbc.update("INSERT INTO users (id, first_name, last_name, email, role) VALUES (?, 'Lazy', 'Loaded', ?, 'Applicant')",
+                    userId, "lazy-" + userId + "@example.com");
+            jdbc.update("INSERT INTO applications (id, race_id, user_id) VALUES (?, ?, ?)", applicationId, raceId, userId);
+        }
+
+        // One statement for the applications, then one per applicant as each lazy user is touched
+        assertThatThrownBy(() -> counter.withinBudget(2, () -> transactionTemplate.executeWithoutResult(status ->
+                applicationRepository.findAllById(applicationIds).forEach(a -> a.getUser().getEmail()))))
+                .isInstanceOf(StatementBudgetExceededException.class);
+
+        // The join the endpoints use fetches them all at once
+        assertThat(counter.withinBudget(1, () -> applicationRepository.findWithUserByIdIn(applicationIds))).hasSize(3);
+    }
+
+    @Test
+    void asyncRequestKeepsOneScopeAndLeavesNoneOnTheThread() throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(TestInfrastructure.dataSource());
+        String suffix = UUID.randomUUID().toString();
+        String applicantEmail = "budget-graphql-" + suffix + "@example.com";
+        UUID applicantId = UUID.randomUUID();
+        UUID raceId = UUID.randomUUID();
+        UUID applicationId = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, first_name, last_name, email, role) VALUES (?, 'Budget', 'GraphQl', ?, 'Applicant')",
+                applicantId, applicantEmail);
+        jdbc.update("INSERT INTO races (id, name, distance) VALUES (?, ?, '10k')", raceId, "Budget GraphQl Run " + suffix);
+        jdbc.update("INSERT INTO applications (id, race_id, user_id) VALUES (?, ?, ?)", applicationId, raceId, applicantId);
+        String token = token(applicantEmail, "Applicant");
+
+        // MockMvc runs both dispatches and the GETs on this thread, the way a servlet container reuses its workers;
+        // the first GET warms the second-level cache, so the second is what every later one runs
+        getApplication(token, applicationId);
+        double before = statements(GET_APPLICATION);
+        getApplication(token, applicationId);
+        double getAlone = statements(GET_APPLICATION) - before;
+        double graphql = statements("POST /graphql");
+        long graphqlRequests = requests("POST /graphql");
+
+        MvcResult started = mockMvc.perform(MockMvcRequestBuilders.post("/graphql")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"query\": \"{ applications { id race { name } user { email } } }\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(new SqlStatementCounter.ScopeAccessor().getValue()).as("scope left on the thread after the request dispatch").isNull();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors").doesNotExist())
+                .andExpect(jsonPath("$.data.applications[0].user.email").value(applicantEmail));
+        assertThat(new SqlStatementCounter.ScopeAccessor().getValue()).as("scope left on the thread after the async dispatch").isNull();
+
+        before = statements(GET_APPLICATION);
+        getApplication(token, applicationId);
+
+        // The GET counts its own statements only, and the fetchers' statements, run on other threads, count for /graphql
+        assertThat(statements(GET_APPLICATION) - before).isEqualTo(getAlone);
+        assertThat(requests("POST /graphql") - graphqlRequests).isEqualTo(1);
+        assertThat(statements("POST /graphql") - graphql).isPositive();
+    }
+
+    private void getApplication(String token, UUID applicationId) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/applications/" + applicationId).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    private double statements(String name) {
+        DistributionSummary statements = meterRegistry.find("sql.statements").tags("kind", "http", "name", name).summary();
+        return statements == null ? 0 : statements.totalAmount();
+    }
+
+    private long requests(String name) {
+        DistributionSummary statements = meterRegistry.find("sql.statements").tags("kind", "http", "name", name).summary();
+        return statements == null ? 0 : statements.count();
+    }
+
+    private void send(String routingKey, String type, Map<String, Object> payload) {
+        // Stamped like the command service's Jackson2JsonMessageConverter, which the budgets are keyed by
+        rabbitTemplate.convertAndSend(exchange, routingKey, payload, message -> {
+            message.getMessageProperties().setHeader("__TypeId__", COMMAND_EVENTS + type);
+            return message;
+        });
+    }
+
+    private String token(String email, String role) {
+        ResponseEntity<JsonNode> response = rest.postForEntity("/auth/token", Map.of("email", email, "role", role), JsonNode.class);
+        assertOk(response);
+        return response.getBody().get("token").asText();
+    }
+
+    private ResponseEntity<String> get(String token, String path) {
+        return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers(token)), String.class);
+    }
+
+    private ResponseEntity<String> post(String token, String path, Object body) {
+        return rest.exchange(path, HttpMethod.POST, new HttpEntity<>(body, headers(token)), String.class);
+    }
+
+    private static HttpHeaders headers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+
+    private static void assertOk(ResponseEntity<?> response) {
+        assertThat(response.getStatusCode().is2xxSuccessful()).as(String.valueOf(response)).isTrue();
+    }
+}
@@ -0,0 +1,122 @@
+package com.intellexi.query.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.SystemConfig;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Embedded PostgreSQL and an in-memory Qpid Broker-J (AMQP 0-9-1, guest/guest), started once per test JVM and
+ * shared by every context the tests start. Tests keep to rows they created, so they need no cleanup between them.
+ */
+public final class TestInfrastructure {
+    private static final Set<String> databases = new HashSet<>(Set.of("postgres"));
+    private static EmbeddedPostgres postgres;
+    private static int brokerPort;
+
+    private TestInfrastructure() {}
+
+    /** Properties pointing a query service context at the shared database and broker. */
+    public static Map<String, Object> properties() {
+        return properties("postgres");
+    }
+
+    /**
+     * Properties like {@link #properties()}, but on a database of its own on the same server, created empty on first
+     * use. For tests whose data would get in the way of the others, such as the query plan test's bulk seed.
+     */
+    public static synchronized Map<String, Object> properties(String database) {
+        start();
+        createDatabase(database);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", database));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.rabbitmq.port", brokerPort);
+        // application.yml logs every statement and bind parameter at DEBUG/TRACE
+        properties.put("logging.level.com.intellexi", "INFO");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        properties.put("logging.level.org.springframework.amqp", "WARN");
+        properties.put("logging.level.qpid", "WARN");
+        return properties;
+    }
+
+    public static void register(DynamicPropertyRegistry registry) {
+        properties().forEach((name, value) -> registry.add(name, () -> value));
+    }
+
+    /** The shared database itself, for seeding rows the way the command side never writes them (users). */
+    public static DataSource dataSource() {
+        return dataSource("postgres");
+    }
+
+    public static synchronized DataSource dataSource(String database) {
+        start();
+        createDatabase(database);
+        return postgres.getDatabase("postgres", database);
+    }
+
+    private static void createDatabase(String database) {
+        if (!databases.add(database)) {
+            return;
+        }
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + database);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create database " + database, e);
+        }
+    }
+
+    private static void start() {
+        if (postgres != null) {
+            return;
+        }
+        try {
+            postgres = EmbeddedPostgres.builder().start();
+            brokerPort = freePort();
+            SystemLauncher broker = new SystemLauncher();
+            URL config = TestInfrastructure.class.getClassLoader().getResource("qpid-config.json");
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put(SystemConfig.TYPE, "Memory");
+            attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION, config.toExternalForm());
+            attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+            attributes.put(SystemConfig.CONTEXT, Map.of("qpid.amqp_port", String.valueOf(brokerPort)));
+            broker.startup(attributes);
+            EmbeddedPostgres database = postgres;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                broker.shutdown();
+                try {
+                    database.close();
+                } catch (IOException ignored) {
+                    // The JVM is exiting; the data directory is temporary anyway
+                }
+            }));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not start the embedded database and broker", e);
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
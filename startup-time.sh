@@ -0,0 +1,65 @@
+#!/bin/bash
+# Startup time of one service, from JVM launch until /actuator/health reports UP:
+# the plain jar (current build) against the optimized build (Spring AOT + AppCDS archive).
+#
+# Needs RabbitMQ and PostgreSQL the way the services expect them locally: make debug-up
+# Usage: ./startup-time.sh [command|query] [runs]
+set -euo pipefail
+
+SERVICE=${1:-command}
+RUNS=${2:-5}
+PORT=${STARTUP_PORT:-18080}
+NAME=race-application-$SERVICE-service
+JAR=$NAME-0.0.1-SNAPSHOT.jar
+DIR=$(cd "$(dirname "$0")" && pwd)/services/$NAME
+OUT=$DIR/target/startup
+
+case "$SERVICE" in
+  command) TRAINING_AOT=-Dspring.aot.enabled=true; TRAINING_ARGS=() ;;
+  # Same as Dockerfile.optimized: no database during training, so the training run skips the AOT bean graph
+  query) TRAINING_AOT=; TRAINING_ARGS=(--spring.flyway.enabled=false --spring.jpa.hibernate.ddl-auto=none
+           --spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect
+           --spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false) ;;
+  *) echo "Usage: $0 [command|query] [runs]" >&2; exit 1 ;;
+esac
+
+build() {
+  echo "Building plain and optimized jars for $NAME..."
+  (cd "$DIR" && mvn -q -DskipTests clean package spring-boot:repackage)
+  mkdir -p "$OUT/plain"
+  cp "$DIR/target/$JAR" "$OUT/plain/$JAR"
+  # process-aot starts the application once to record its bean graph
+  (cd "$DIR" && mvn -q -DskipTests -Poptimized package) > "$OUT/aot.log" 2>&1
+  java -Djarmode=tools -jar "$DIR/target/$JAR" extract --destination "$OUT/optimized" > /dev/null
+  echo "Training run for the AppCDS archive..."
+  java -XX:ArchiveClassesAtExit="$OUT/optimized/app.jsa" $TRAINING_AOT -Dspring.context.exit=onRefresh \
+    -jar "$OUT/optimized/$JAR" "${TRAINING_ARGS[@]}" > "$OUT/training.log" 2>&1
+}
+
+# Prints milliseconds from launch to the first UP health response
+measure() {
+  local start pid
+  start=$(date +%s%N)
+  "$@" --server.port="$PORT" > "$OUT/run.log" 2>&1 &
+  pid=$!
+  until curl -fs "http://localhost:$PORT/actuator/health" 2>/dev/null | grep -q '"status":"UP"'; do
+    if ! kill -0 "$pid" 2>/dev/null; then echo "Service exited; see $OUT/run.log" >&2; exit 1; fi
+    sleep 0.05
+  done
+  echo $(( ($(date +%s%N) - start) / 1000000 ))
+  kill "$pid" && wait "$pid" 2>/dev/null || true
+}
+
+report() {
+  local label=$1; shift
+  local times=()
+  for _ in $(seq "$RUNS"); do times+=("$(measure "$@")"); done
+  local sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+  printf '%-10s median %6d ms   min %6d ms   max %6d ms   (%s)\n' "$label" \
+    "${sorted[$(( RUNS / 2 ))]}" "${sorted[0]}" "${sorted[$(( RUNS - 1 ))]}" "${times[*]}"
+}
+
+build
+echo "Startup to /actuator/health UP, $RUNS runs each:"
+report plain java -jar "$OUT/plain/$JAR"
+report optimized java -XX:SharedArchiveFile="$OUT/optimized/app.jsa" -Dspring.aot.enabled=true -jar "$OUT/optimized/$JAR"